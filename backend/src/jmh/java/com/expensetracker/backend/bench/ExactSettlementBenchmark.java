@@ -0,0 +1,46 @@
+package com.expensetracker.backend.bench;
+
+import com.expensetracker.backend.dto.DebtDto;
+import com.expensetracker.backend.service.settlement.GreedySettlement;
+import com.expensetracker.backend.service.settlement.MinimumTransferSettlement;
+import com.expensetracker.backend.service.settlement.SettlementStrategy;
+import com.expensetracker.backend.util.LongLongMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The exact solver is exponential, so it is measured separately up to its member limit
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExactSettlementBenchmark {
+
+    @Param({"10", "14", "18", "20"})
+    int members;
+
+    @Param({"greedy", "exact"})
+    String strategy;
+
+    private SettlementStrategy settlement;
+    private LongLongMap net;
+
+    @Setup
+    public void setup() {
+        settlement = strategy.equals("exact") ? new MinimumTransferSettlement() : new GreedySettlement();
+        net = SyntheticGroups.netPositions(members, 42);
+    }
+
+    @TearDown
+    public void report() {
+        System.out.printf("%n%s/%d members: %d transfers%n", strategy, members, settlement.plan(net).size());
+    }
+
+    @Benchmark
+    public List<DebtDto> plan() {
+        return settlement.plan(net);
+    }
+}
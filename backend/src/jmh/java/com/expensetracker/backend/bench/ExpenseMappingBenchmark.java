@@ -0,0 +1,92 @@
+package com.expensetracker.backend.bench;
+
+import com.expensetracker.backend.dto.ExpenseDto;
+import com.expensetracker.backend.dto.ExpenseRowDto;
+import com.expensetracker.backend.entity.ExpenseEntity;
+import com.expensetracker.backend.entity.ExpenseSplitEntity;
+import com.expensetracker.backend.util.Money;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and serializing an expense listing from loaded rows. {@code maps} is the
+ * LinkedHashMap-per-row listing the expenses endpoint originally returned, {@code rows} the
+ * ExpenseRowDto projection it returns now, and {@code details} the full ExpenseDto with splits.
+ * The serialize variants include Jackson writing the list, which is what a request pays for.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpenseMappingBenchmark {
+
+    @Param({"1000", "100000"})
+    int expenses;
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+    private List<ExpenseEntity> entities;
+
+    @Setup
+    public void setup() {
+        entities = SyntheticGroups.expenses(20, expenses, 4, 42);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> maps() {
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (ExpenseEntity e : entities) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("id", e.id);
+            m.put("groupId", e.group.id);
+            m.put("paidByUserId", e.paidBy != null ? e.paidBy.id : null);
+            m.put("amount", Money.toAmount(e.amountCents));
+            m.put("description", e.description != null ? e.description : "");
+            out.add(m);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public List<ExpenseRowDto> rows() {
+        List<ExpenseRowDto> out = new ArrayList<>(entities.size());
+        for (ExpenseEntity e : entities) {
+            out.add(new ExpenseRowDto(e.id, e.group.id, e.paidBy != null ? e.paidBy.id : null, e.amountCents, e.description));
+        }
+        return out;
+    }
+
+    @Benchmark
+    public List<ExpenseDto> details() {
+        List<ExpenseDto> out = new ArrayList<>(entities.size());
+        for (ExpenseEntity e : entities) {
+            Map<Long, Long> splits = new LinkedHashMap<>();
+            for (ExpenseSplitEntity s : e.splits) splits.put(s.user.id, s.amountOwedCents);
+            out.add(new ExpenseDto(e.id, e.group.id, e.paidBy != null ? e.paidBy.id : null, e.amountCents, e.description, splits, e.archived));
+        }
+        return out;
+    }
+
+    @Benchmark
+    public void mapsSerialized() {
+        mapper.writeValue(OutputStream.nullOutputStream(), maps());
+    }
+
+    @Benchmark
+    public void rowsSerialized() {
+        mapper.writeValue(OutputStream.nullOutputStream(), rows());
+    }
+
+    @Benchmark
+    public void detailsSerialized() {
+        mapper.writeValue(OutputStream.nullOutputStream(), details());
+    }
+}
@@ -0,0 +1,77 @@
+package com.expensetracker.backend.bench;
+
+import com.expensetracker.backend.dto.DebtDto;
+import com.expensetracker.backend.entity.ExpenseEntity;
+import com.expensetracker.backend.entity.ExpenseSplitEntity;
+import com.expensetracker.backend.service.BalanceLedger;
+import com.expensetracker.backend.service.settlement.GreedySettlement;
+import com.expensetracker.backend.service.settlement.MinimumTransferSettlement;
+import com.expensetracker.backend.service.settlement.PairingSettlement;
+import com.expensetracker.backend.service.settlement.SettlementPlanner;
+import com.expensetracker.backend.util.LongLongMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Net-balance aggregation over a group's active expenses, as done when the ledger is rebuilt or a
+ * batch is recorded. {@code boxed} is the HashMap&lt;Long, Long&gt; merge the balances endpoint used
+ * before the ledger existed; run with {@code -prof gc} to compare allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class LedgerAggregationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int members;
+
+    @Param({"1000", "100000", "1000000"})
+    int expenses;
+
+    private List<ExpenseEntity> rows;
+    private SettlementPlanner planner;
+
+    @Setup
+    public void setup() {
+        rows = SyntheticGroups.expenses(members, expenses, 4, 42);
+        planner = new SettlementPlanner(List.of(
+                new GreedySettlement(), new MinimumTransferSettlement(), new PairingSettlement()));
+    }
+
+    @TearDown
+    public void release() {
+        rows = null;
+    }
+
+    @Benchmark
+    public LongLongMap ledger() {
+        LongLongMap net = new LongLongMap(members);
+        for (ExpenseEntity e : rows) BalanceLedger.accumulate(e, net);
+        return net;
+    }
+
+    @Benchmark
+    public Map<Long, Long> boxed() {
+        Map<Long, Long> net = new HashMap<>();
+        for (ExpenseEntity e : rows) {
+            net.merge(e.paidBy.id, e.amountCents, Long::sum);
+            for (ExpenseSplitEntity s : e.splits) {
+                net.merge(s.user.id, -s.amountOwedCents, Long::sum);
+            }
+        }
+        return net;
+    }
+
+    // Aggregation followed by greedy matching: the full cost of an uncached balances request
+    @Benchmark
+    public List<DebtDto> ledgerAndPlan() {
+        return planner.plan("greedy", ledger());
+    }
+}
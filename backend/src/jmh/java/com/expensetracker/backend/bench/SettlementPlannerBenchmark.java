@@ -0,0 +1,51 @@
+package com.expensetracker.backend.bench;
+
+import com.expensetracker.backend.dto.DebtDto;
+import com.expensetracker.backend.service.settlement.GreedySettlement;
+import com.expensetracker.backend.service.settlement.MinimumTransferSettlement;
+import com.expensetracker.backend.service.settlement.PairingSettlement;
+import com.expensetracker.backend.service.settlement.SettlementPlanner;
+import com.expensetracker.backend.util.LongLongMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planning cost per strategy on synthetic groups. The number of suggested transfers is printed at
+ * the end of each trial, since fewer transfers is what the slower strategies buy.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SettlementPlannerBenchmark {
+
+    @Param({"10", "50", "100", "500"})
+    int members;
+
+    @Param({"greedy", "heuristic", "auto"})
+    String strategy;
+
+    private SettlementPlanner planner;
+    private LongLongMap net;
+
+    @Setup
+    public void setup() {
+        planner = new SettlementPlanner(List.of(
+                new GreedySettlement(), new MinimumTransferSettlement(), new PairingSettlement()));
+        net = SyntheticGroups.netPositions(members, 42);
+    }
+
+    @TearDown
+    public void report() {
+        System.out.printf("%n%s/%d members: %d transfers%n", strategy, members, planner.plan(strategy, net).size());
+    }
+
+    @Benchmark
+    public List<DebtDto> plan() {
+        return planner.plan(strategy, net);
+    }
+}
@@ -0,0 +1,58 @@
+package com.expensetracker.backend.bench;
+
+import com.expensetracker.backend.dto.CreateExpenseRequest;
+import com.expensetracker.backend.service.ExpenseSplitter;
+import com.expensetracker.backend.util.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Split calculation for one new expense: EQUAL across every member, or CUSTOM amounts per member
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SplitGenerationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int members;
+
+    @Param({"EQUAL", "CUSTOM"})
+    String splitType;
+
+    private final ExpenseSplitter splitter = new ExpenseSplitter();
+    private CreateExpenseRequest request;
+    private List<Long> memberIds;
+    private long amountCents;
+
+    @Setup
+    public void setup() {
+        memberIds = new ArrayList<>(members);
+        // Members arrive from the join table in no particular order
+        for (int i = members; i >= 1; i--) memberIds.add((long) i);
+
+        request = new CreateExpenseRequest();
+        request.paidByUserId = 1L;
+        request.amount = 1234.57;
+        request.description = "Dinner";
+        request.splitType = splitType;
+        amountCents = Money.toCents(request.amount);
+        if (splitType.equals("CUSTOM")) {
+            long[] shares = Money.splitEvenly(amountCents, members);
+            Map<Long, Double> splits = new LinkedHashMap<>();
+            for (int i = 0; i < members; i++) splits.put(i + 1L, Money.toAmount(shares[i]));
+            request.splits = splits;
+        }
+    }
+
+    @Benchmark
+    public Map<Long, Long> splits() {
+        return splitter.splits(request, amountCents, memberIds);
+    }
+}
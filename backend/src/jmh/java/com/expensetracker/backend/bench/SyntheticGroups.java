@@ -0,0 +1,73 @@
+package com.expensetracker.backend.bench;
+
+import com.expensetracker.backend.entity.ExpenseEntity;
+import com.expensetracker.backend.entity.ExpenseSplitEntity;
+import com.expensetracker.backend.entity.GroupEntity;
+import com.expensetracker.backend.entity.UserEntity;
+import com.expensetracker.backend.util.LongLongMap;
+import com.expensetracker.backend.util.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+final class SyntheticGroups {
+
+    private SyntheticGroups() {
+    }
+
+    /**
+     * Net positions (userId -> cents) for a group of the given size that sum to zero. Amounts are
+     * whole currency units up to 500, so matching amounts and zero-sum subsets occur as they do in
+     * real groups that split round bills.
+     */
+    static LongLongMap netPositions(int members, long seed) {
+        Random random = new Random(seed);
+        LongLongMap net = new LongLongMap(members);
+        long total = 0;
+        for (int i = 1; i < members; i++) {
+            long cents = (random.nextInt(1001) - 500) * 100L;
+            net.put(i, cents);
+            total += cents;
+        }
+        net.put(members, -total);
+        return net;
+    }
+
+    /**
+     * Active expenses of one group as they come out of the details entity graph. Each is paid by a
+     * random member and split evenly between up to {@code splitsPerExpense} distinct members.
+     */
+    static List<ExpenseEntity> expenses(int members, int count, int splitsPerExpense, long seed) {
+        Random random = new Random(seed);
+        GroupEntity group = new GroupEntity();
+        group.id = 1L;
+        UserEntity[] users = new UserEntity[members];
+        for (int i = 0; i < members; i++) {
+            users[i] = new UserEntity();
+            users[i].id = i + 1L;
+            users[i].name = "User " + (i + 1);
+        }
+        int perExpense = Math.min(members, splitsPerExpense);
+        List<ExpenseEntity> expenses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ExpenseEntity e = new ExpenseEntity();
+            e.id = i + 1L;
+            e.group = group;
+            e.paidBy = users[random.nextInt(members)];
+            e.amountCents = 100L + random.nextInt(50_000);
+            e.description = "Expense " + (i + 1);
+            long[] shares = Money.splitEvenly(e.amountCents, perExpense);
+            int first = random.nextInt(members);
+            for (int j = 0; j < perExpense; j++) {
+                ExpenseSplitEntity s = new ExpenseSplitEntity();
+                s.expense = e;
+                s.user = users[(first + j) % members];
+                s.amountOwedCents = shares[j];
+                e.splits.add(s);
+            }
+            expenses.add(e);
+        }
+        return expenses;
+    }
+}
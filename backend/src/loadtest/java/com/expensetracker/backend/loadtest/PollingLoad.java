@@ -0,0 +1,131 @@
+package com.expensetracker.backend.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop polling load against a running backend: each client sends its next request as soon
+ * as the previous one completes, cycling through the polled group endpoints. Prints throughput,
+ * latency percentiles and error counts for the measured window. Run it once against the default
+ * profile and once against --spring.profiles.active=vthreads to compare.
+ *
+ * <pre>mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--group 2 --clients 1000 --seconds 30"</pre>
+ */
+public class PollingLoad {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parse(args);
+        String base = opts.getOrDefault("base", "http://localhost:8080");
+        long groupId = Long.parseLong(opts.getOrDefault("group", "1"));
+        int clients = Integer.parseInt(opts.getOrDefault("clients", "1000"));
+        int seconds = Integer.parseInt(opts.getOrDefault("seconds", "30"));
+        int warmup = Integer.parseInt(opts.getOrDefault("warmup", "5"));
+        List<URI> targets = new ArrayList<>();
+        for (String path : opts.getOrDefault("paths", "balances,expenses?limit=50,summary").split(",")) {
+            targets.add(URI.create(base + "/groups/" + groupId + "/" + path));
+        }
+
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        Recorder recorder = new Recorder(TimeUnit.SECONDS.toNanos(60), 3);
+        AtomicLong ok = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        Map<Integer, AtomicLong> statuses = new TreeMap<>();
+        for (int s : new int[]{200, 304, 404, 500, 503}) statuses.put(s, new AtomicLong());
+
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmup);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch done = new CountDownLatch(clients);
+        System.out.printf("%d clients, %ds warmup + %ds measured, targets %s%n", clients, warmup, seconds, targets);
+        for (int c = 0; c < clients; c++) {
+            new Client(http, targets, c, measureFrom, end, recorder, ok, failed, statuses, done).next();
+        }
+        done.await();
+
+        Histogram h = recorder.getIntervalHistogram();
+        long measured = h.getTotalCount();
+        System.out.printf("requests   %d (%.0f/s)%n", measured, measured / (double) seconds);
+        System.out.printf("latency ms p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  max %.1f%n",
+                ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)), ms(h.getValueAtPercentile(99)),
+                ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()));
+        System.out.printf("responses  ok %d, failed %d, by status %s%n", ok.get(), failed.get(), statuses);
+    }
+
+    private static final class Client {
+        private final HttpClient http;
+        private final List<URI> targets;
+        private final long measureFrom;
+        private final long end;
+        private final Recorder recorder;
+        private final AtomicLong ok;
+        private final AtomicLong failed;
+        private final Map<Integer, AtomicLong> statuses;
+        private final CountDownLatch done;
+        private int turn;
+
+        Client(HttpClient http, List<URI> targets, int offset, long measureFrom, long end, Recorder recorder,
+               AtomicLong ok, AtomicLong failed, Map<Integer, AtomicLong> statuses, CountDownLatch done) {
+            this.http = http;
+            this.targets = targets;
+            this.turn = offset;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            this.recorder = recorder;
+            this.ok = ok;
+            this.failed = failed;
+            this.statuses = statuses;
+            this.done = done;
+        }
+
+        void next() {
+            long sent = System.nanoTime();
+            if (sent >= end) {
+                done.countDown();
+                return;
+            }
+            HttpRequest req = HttpRequest.newBuilder(targets.get(turn++ % targets.size()))
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+            http.sendAsync(req, HttpResponse.BodyHandlers.discarding()).whenComplete((res, ex) -> {
+                long now = System.nanoTime();
+                if (sent >= measureFrom && now <= end) {
+                    recorder.recordValue(now - sent);
+                    if (ex != null || res.statusCode() >= 500) failed.incrementAndGet();
+                    else ok.incrementAndGet();
+                    if (res != null) {
+                        AtomicLong count = statuses.get(res.statusCode());
+                        if (count != null) count.incrementAndGet();
+                    }
+                }
+                next();
+            });
+        }
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            opts.put(args[i].substring(2), args[i + 1]);
+        }
+        return opts;
+    }
+}
@@ -0,0 +1,10 @@
+package com.expensetracker.backend.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caches and their Caffeine spec are declared under spring.cache.* in application.properties
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
@@ -0,0 +1,35 @@
+package com.expensetracker.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Histogram buckets and percentiles for these meters are configured under management.metrics.*
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer requestSqlStatsCustomizer() {
+        RequestSqlStats stats = new RequestSqlStats();
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, stats);
+            properties.put(AvailableSettings.INTERCEPTOR, stats);
+        };
+    }
+
+    @Bean
+    public WebMvcConfigurer requestMetricsConfigurer(MeterRegistry registry) {
+        RequestMetricsInterceptor interceptor = new RequestMetricsInterceptor(registry);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry interceptors) {
+                // Event streams stay open for minutes and would swamp the request timings
+                interceptors.addInterceptor(interceptor).excludePathPatterns("/groups/*/events");
+            }
+        };
+    }
+}
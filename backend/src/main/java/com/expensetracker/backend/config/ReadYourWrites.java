@@ -0,0 +1,86 @@
+package com.expensetracker.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+
+/**
+ * Pins reads to the primary for a mutating request and, for the sticky window after it, for every
+ * request from the same client, so a client never reads a replica that has not caught up with its
+ * own write. Clients are told apart by the X-Client-Id header, or by remote address without one.
+ * The pin lives in a thread-local of the request thread: it is cleared when a request goes async
+ * (SSE, streaming bodies), and a streaming body takes it along with {@link #carryPin}.
+ */
+public class ReadYourWrites implements AsyncHandlerInterceptor {
+
+    public static final String CLIENT_HEADER = "X-Client-Id";
+    private static final int MAX_CLIENTS = 100_000;
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWrites(Duration stickyWindow) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickyWindow)
+                .maximumSize(MAX_CLIENTS)
+                .build();
+    }
+
+    public static boolean pinned() {
+        return PINNED.get() != null;
+    }
+
+    // Decided on the request thread; the body is written on an async one, which otherwise reads unpinned
+    public static StreamingResponseBody carryPin(StreamingResponseBody body) {
+        if (!pinned()) return body;
+        return out -> {
+            PINNED.set(Boolean.TRUE);
+            try {
+                body.writeTo(out);
+            } finally {
+                PINNED.remove();
+            }
+        };
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String client = client(request);
+        if (!safe(request.getMethod())) {
+            recentWriters.put(client, Boolean.TRUE);
+            PINNED.set(Boolean.TRUE);
+        } else if (recentWriters.getIfPresent(client) != null) {
+            PINNED.set(Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        // The window runs from the end of the write, when it has committed
+        if (!safe(request.getMethod())) recentWriters.put(client(request), Boolean.TRUE);
+        PINNED.remove();
+    }
+
+    // afterCompletion does not run on this thread once the request goes async, and the thread goes
+    // back to the container serving other clients; the async dispatch runs preHandle again
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        PINNED.remove();
+    }
+
+    private static boolean safe(String method) {
+        return method.equals("GET") || method.equals("HEAD") || method.equals("OPTIONS");
+    }
+
+    private static String client(HttpServletRequest request) {
+        String id = request.getHeader(CLIENT_HEADER);
+        return id != null && !id.isBlank() ? "id:" + id : "addr:" + request.getRemoteAddr();
+    }
+}
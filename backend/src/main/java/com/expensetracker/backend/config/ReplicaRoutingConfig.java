@@ -0,0 +1,73 @@
+package com.expensetracker.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas, only when app.datasource.replica-urls lists at least one. The primary pool is
+ * built from spring.datasource.* as before; each replica pool copies its settings, with the
+ * replica's URL and optionally its own credentials, and hands out read-only connections. Pool
+ * metrics are published as hikaricp.* tagged with the pool name (primary, replica-1, ...).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica-urls")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource dataSource(
+            DataSourceProperties properties,
+            Environment env,
+            MeterRegistry registry,
+            @Value("${app.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${app.datasource.replica-username:}") String replicaUsername,
+            @Value("${app.datasource.replica-password:}") String replicaPassword,
+            @Value("${app.datasource.replica-retry:PT10S}") Duration retry
+    ) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(registry);
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(env).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(metrics);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) continue;
+            HikariDataSource replica = new HikariDataSource();
+            primary.copyStateTo(replica);
+            replica.setJdbcUrl(url.trim());
+            if (!replicaUsername.isEmpty()) replica.setUsername(replicaUsername);
+            if (!replicaPassword.isEmpty()) replica.setPassword(replicaPassword);
+            replica.setReadOnly(true);
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setMetricsTrackerFactory(metrics);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, retry, registry);
+    }
+
+    @Bean
+    public WebMvcConfigurer readYourWritesConfigurer(@Value("${app.datasource.sticky-window:PT5S}") Duration stickyWindow) {
+        ReadYourWrites interceptor = new ReadYourWrites(stickyWindow);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry interceptors) {
+                interceptors.addInterceptor(interceptor);
+            }
+        };
+    }
+}
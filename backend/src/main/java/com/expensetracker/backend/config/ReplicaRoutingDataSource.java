@@ -0,0 +1,107 @@
+package com.expensetracker.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Primary pool for everything except read-only transactions, which take a connection from the
+ * replica pools in turn.
+ * <p>
+ * The physical connection is fetched at the first statement, after the transaction has marked it
+ * read-only. Reads stay on the primary while {@link ReadYourWrites} pins the request, and fall back
+ * to it when no replica hands out a connection; a replica that failed is skipped for the retry
+ * interval. A read that already holds a replica connection when the replica goes away still fails.
+ * Every read-only connection counts towards app.datasource.reads by pool and reason.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final long retryNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter pinned;
+    private final Counter fallback;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, Duration retry, MeterRegistry registry) {
+        super(primary);
+        this.primary = primary;
+        this.replicas = replicas.stream().map(pool -> new Replica(pool, reads(registry, pool.getPoolName(), "replica"))).toList();
+        this.retryNanos = retry.toNanos();
+        this.pinned = reads(registry, primary.getPoolName(), "pinned");
+        this.fallback = reads(registry, primary.getPoolName(), "fallback");
+        setReadOnlyDataSource(new ReadOnlyConnections());
+    }
+
+    private static Counter reads(MeterRegistry registry, String pool, String reason) {
+        return Counter.builder("app.datasource.reads")
+                .description("Read-only transactions by the pool that served them")
+                .tag("pool", pool)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        for (Replica r : replicas) r.pool.close();
+        primary.close();
+    }
+
+    private Connection readOnlyConnection() throws SQLException {
+        if (ReadYourWrites.pinned()) {
+            pinned.increment();
+            return primary.getConnection();
+        }
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica r = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (r.downUntil - System.nanoTime() > 0) continue;
+            try {
+                Connection c = r.pool.getConnection();
+                r.reads.increment();
+                return c;
+            } catch (SQLException | RuntimeException ex) {
+                // Hikari throws PoolInitializationException when the replica was down at first use
+                r.downUntil = System.nanoTime() + retryNanos;
+                log.warn("Replica pool {} unavailable, reading from the primary: {}", r.pool.getPoolName(), ex.getMessage());
+            }
+        }
+        fallback.increment();
+        return primary.getConnection();
+    }
+
+    private static final class Replica {
+        final HikariDataSource pool;
+        final Counter reads;
+        volatile long downUntil = System.nanoTime();
+
+        Replica(HikariDataSource pool, Counter reads) {
+            this.pool = pool;
+            this.reads = reads;
+        }
+    }
+
+    private final class ReadOnlyConnections extends AbstractDataSource {
+        @Override
+        public Connection getConnection() throws SQLException {
+            return readOnlyConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLException("Replica connections use the configured credentials");
+        }
+    }
+}
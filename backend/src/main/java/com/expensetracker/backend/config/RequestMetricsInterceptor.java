@@ -0,0 +1,59 @@
+package com.expensetracker.backend.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per controller operation (e.g. ExpenseController.balances): request time, SQL statements and
+ * entities loaded. Work done outside the request thread, such as NDJSON streaming, is not counted.
+ */
+public class RequestMetricsInterceptor implements HandlerInterceptor {
+
+    private static final String START = RequestMetricsInterceptor.class.getName() + ".start";
+
+    private final MeterRegistry registry;
+
+    public RequestMetricsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            RequestSqlStats.reset();
+            request.setAttribute(START, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod method) || !(request.getAttribute(START) instanceof Long start)) return;
+        String operation = method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        String status = Integer.toString(response.getStatus());
+
+        Timer.builder("app.operation")
+                .description("Controller operation time")
+                .tag("operation", operation)
+                .tag("status", status)
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("app.operation.sql.statements")
+                .description("SQL statements issued per request")
+                .tag("operation", operation)
+                .register(registry)
+                .record(RequestSqlStats.statements());
+        DistributionSummary.builder("app.operation.entities.loaded")
+                .description("Entities hydrated per request")
+                .tag("operation", operation)
+                .register(registry)
+                .record(RequestSqlStats.entitiesLoaded());
+    }
+}
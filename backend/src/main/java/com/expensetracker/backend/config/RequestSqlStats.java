@@ -0,0 +1,46 @@
+package com.expensetracker.backend.config;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * Counts the SQL statements Hibernate prepares and the entities it hydrates on the current thread.
+ * {@link RequestMetricsInterceptor} resets the counters when a request starts and records them
+ * when it completes, so an N+1 regression shows up as a jump in the per-operation statement count.
+ */
+public final class RequestSqlStats implements StatementInspector, Interceptor {
+
+    private static final class Counters {
+        long statements;
+        long entitiesLoaded;
+    }
+
+    private static final ThreadLocal<Counters> CURRENT = ThreadLocal.withInitial(Counters::new);
+
+    static void reset() {
+        Counters c = CURRENT.get();
+        c.statements = 0;
+        c.entitiesLoaded = 0;
+    }
+
+    static long statements() {
+        return CURRENT.get().statements;
+    }
+
+    static long entitiesLoaded() {
+        return CURRENT.get().entitiesLoaded;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        CURRENT.get().statements++;
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        CURRENT.get().entitiesLoaded++;
+        return false;
+    }
+}
@@ -0,0 +1,10 @@
+package com.expensetracker.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background jobs (archive purge) declare their own intervals under app.*
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
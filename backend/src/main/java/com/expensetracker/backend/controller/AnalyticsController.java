@@ -0,0 +1,96 @@
+package com.expensetracker.backend.controller;
+
+import com.expensetracker.backend.dto.SpendingAnalyticsDto;
+import com.expensetracker.backend.entity.DailySpendEntity;
+import com.expensetracker.backend.repo.DailySpendRepository;
+import com.expensetracker.backend.repo.GroupRepository;
+import com.expensetracker.backend.service.SpendingRollup;
+import com.expensetracker.backend.util.Money;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+
+@CrossOrigin(origins = "http://localhost:5173", allowedHeaders = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.OPTIONS})
+@RestController
+public class AnalyticsController {
+
+    private static final LocalDate MIN_DAY = LocalDate.of(1, 1, 1);
+    private static final LocalDate MAX_DAY = LocalDate.of(9999, 12, 31);
+
+    private final GroupRepository groupRepo;
+    private final DailySpendRepository spendRepo;
+    private final SpendingRollup spending;
+
+    public AnalyticsController(GroupRepository groupRepo, DailySpendRepository spendRepo, SpendingRollup spending) {
+        this.groupRepo = groupRepo;
+        this.spendRepo = spendRepo;
+        this.spending = spending;
+    }
+
+    // Reads the group's daily rows in [from, to] and folds them into buckets; never touches expenses
+    @Transactional(readOnly = true)
+    @GetMapping("/groups/{groupId}/analytics")
+    public ResponseEntity<SpendingAnalyticsDto> analytics(
+            @PathVariable long groupId,
+            @RequestParam(defaultValue = "month") String bucket,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        String unit = bucket.toLowerCase(Locale.ROOT);
+        if (!unit.equals("day") && !unit.equals("week") && !unit.equals("month")) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (groupRepo.findVersion(groupId).isEmpty()) return ResponseEntity.notFound().build();
+
+        SpendingAnalyticsDto dto = new SpendingAnalyticsDto(groupId, unit);
+        // bucket start -> userId -> {paid, share}, both in ascending order
+        Map<LocalDate, Map<Long, long[]>> buckets = new TreeMap<>();
+        Map<Long, long[]> members = new TreeMap<>();
+        for (DailySpendEntity d : spendRepo.findRange(groupId, from != null ? from : MIN_DAY, to != null ? to : MAX_DAY)) {
+            long[] b = buckets.computeIfAbsent(bucketStart(d.spentOn, unit), k -> new TreeMap<>())
+                    .computeIfAbsent(d.userId, k -> new long[2]);
+            long[] m = members.computeIfAbsent(d.userId, k -> new long[2]);
+            b[0] += d.paidCents;
+            b[1] += d.shareCents;
+            m[0] += d.paidCents;
+            m[1] += d.shareCents;
+        }
+        buckets.forEach((start, byUser) -> {
+            SpendingAnalyticsDto.BucketDto b = new SpendingAnalyticsDto.BucketDto(start);
+            byUser.forEach((userId, v) -> {
+                b.members.add(new SpendingAnalyticsDto.MemberSpendDto(userId, v[0], v[1]));
+                b.totalCents += v[0];
+            });
+            b.total = Money.toAmount(b.totalCents);
+            dto.buckets.add(b);
+        });
+        members.forEach((userId, v) -> {
+            dto.members.add(new SpendingAnalyticsDto.MemberSpendDto(userId, v[0], v[1]));
+            dto.totalCents += v[0];
+        });
+        dto.total = Money.toAmount(dto.totalCents);
+        return ResponseEntity.ok(dto);
+    }
+
+    // Recomputes the group's daily rows from its expenses; returns the number of rows written
+    @PostMapping("/admin/groups/{groupId}/analytics/rebuild")
+    public ResponseEntity<Integer> rebuild(@PathVariable long groupId) {
+        int rows = spending.rebuild(groupId);
+        if (rows < 0) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(rows);
+    }
+
+    private static LocalDate bucketStart(LocalDate day, String unit) {
+        return switch (unit) {
+            case "week" -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case "month" -> day.withDayOfMonth(1);
+            default -> day;
+        };
+    }
+}
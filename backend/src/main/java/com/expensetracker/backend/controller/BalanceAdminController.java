@@ -0,0 +1,55 @@
+package com.expensetracker.backend.controller;
+
+import com.expensetracker.backend.dto.BalanceDriftDto;
+import com.expensetracker.backend.repo.GroupRepository;
+import com.expensetracker.backend.service.BalanceLedger;
+import com.expensetracker.backend.util.LongLongMap;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+
+@CrossOrigin(origins = "http://localhost:5173", allowedHeaders = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.OPTIONS})
+@RestController
+public class BalanceAdminController {
+
+    private final GroupRepository groupRepo;
+    private final BalanceLedger ledger;
+
+    public BalanceAdminController(GroupRepository groupRepo, BalanceLedger ledger) {
+        this.groupRepo = groupRepo;
+        this.ledger = ledger;
+    }
+
+    // Compares the stored ledger with a full recomputation; an empty list means no drift.
+    // One transaction, so both sides are read from the same database.
+    @Transactional(readOnly = true)
+    @GetMapping("/admin/groups/{groupId}/balances/verify")
+    public ResponseEntity<List<BalanceDriftDto>> verify(@PathVariable long groupId) {
+        if (!groupRepo.existsById(groupId)) return ResponseEntity.notFound().build();
+
+        LongLongMap stored = ledger.netPositions(groupId);
+        LongLongMap actual = ledger.recompute(groupId);
+        Set<Long> userIds = new TreeSet<>();
+        for (int i = 0; i < stored.size(); i++) userIds.add(stored.keyAt(i));
+        for (int i = 0; i < actual.size(); i++) userIds.add(actual.keyAt(i));
+
+        List<BalanceDriftDto> drift = new ArrayList<>();
+        for (long userId : userIds) {
+            long s = stored.get(userId);
+            long a = actual.get(userId);
+            if (s != a) drift.add(new BalanceDriftDto(userId, s, a));
+        }
+        return ResponseEntity.ok(drift);
+    }
+
+    @PostMapping("/admin/groups/{groupId}/balances/rebuild")
+    public ResponseEntity<Map<Long, Long>> rebuild(@PathVariable long groupId) {
+        if (!groupRepo.existsById(groupId)) return ResponseEntity.notFound().build();
+        LongLongMap net = ledger.rebuild(groupId);
+        Map<Long, Long> out = new LinkedHashMap<>();
+        for (int i = 0; i < net.size(); i++) out.put(net.keyAt(i), net.valueAt(i));
+        return ResponseEntity.ok(out);
+    }
+}
@@ -0,0 +1,27 @@
+package com.expensetracker.backend.controller;
+
+import com.expensetracker.backend.service.StaleVersionException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+// Version conflicts usually surface at commit, after the handler's own try/catch has returned
+@RestControllerAdvice
+public class ConflictExceptionHandler {
+
+    // Two If-Match writers can both pass the version check; the one that commits second fails on the
+    // version increment, or on a ledger row the first one inserted, and is told its version is stale
+    @ExceptionHandler({ObjectOptimisticLockingFailureException.class, DataIntegrityViolationException.class})
+    public ResponseEntity<Void> concurrentWrite(HttpServletRequest request) {
+        return ResponseEntity.status(request.getHeader(HttpHeaders.IF_MATCH) != null ? 412 : 409).build();
+    }
+
+    @ExceptionHandler(StaleVersionException.class)
+    public ResponseEntity<Void> staleVersion() {
+        return ResponseEntity.status(412).build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.expensetracker.backend.controller;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Group reads carry the group's version as a strong ETag; writes may send it back in If-Match.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // An absent header or "*" matches any existing version
+    static boolean matches(String ifMatch, Long version) {
+        Set<Long> expected = expectedVersions(ifMatch);
+        return expected == null || (version != null && expected.contains(version));
+    }
+
+    // Versions listed in If-Match, or null when any version is acceptable; tags naming no version are skipped
+    static Set<Long> expectedVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) return null;
+        Set<Long> versions = new HashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            String t = tag.trim();
+            if (t.equals("*")) return null;
+            if (t.length() < 3 || !t.startsWith("\"") || !t.endsWith("\"")) continue;
+            try {
+                versions.add(Long.parseLong(t.substring(1, t.length() - 1)));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return versions;
+    }
+}
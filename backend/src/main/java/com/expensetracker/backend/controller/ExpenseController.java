@@ -1,91 +1,190 @@
 package com.expensetracker.backend.controller;
 
+import com.expensetracker.backend.config.ReadYourWrites;
+import com.expensetracker.backend.dto.BatchRowResultDto;
 import com.expensetracker.backend.dto.CreateExpenseRequest;
 import com.expensetracker.backend.dto.DebtDto;
 import com.expensetracker.backend.dto.ExpenseDto;
+import com.expensetracker.backend.dto.ExpenseRowDto;
+import com.expensetracker.backend.dto.GroupEventDto;
 import com.expensetracker.backend.entity.ExpenseEntity;
 import com.expensetracker.backend.entity.ExpenseSplitEntity;
 import com.expensetracker.backend.entity.GroupEntity;
 import com.expensetracker.backend.entity.UserEntity;
+import com.expensetracker.backend.repo.ExpenseArchiveRepository;
 import com.expensetracker.backend.repo.ExpenseRepository;
 import com.expensetracker.backend.repo.GroupRepository;
 import com.expensetracker.backend.repo.UserRepository;
+import com.expensetracker.backend.service.BalanceLedger;
+import com.expensetracker.backend.service.BalanceQueries;
+import com.expensetracker.backend.service.ExpenseArchiver;
+import com.expensetracker.backend.service.ExpenseBatchWriter;
+import com.expensetracker.backend.service.ExpenseSplitter;
+import com.expensetracker.backend.service.GroupEvents;
+import com.expensetracker.backend.service.SpendingRollup;
+import com.expensetracker.backend.service.settlement.SettlementPlanner;
+import com.expensetracker.backend.util.LongLongMap;
+import com.expensetracker.backend.util.Money;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.*;
+import java.util.stream.Stream;
 
 @CrossOrigin(origins = "http://localhost:5173", allowedHeaders = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS})
 @RestController
 public class ExpenseController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final ExpenseRepository expenseRepo;
+    private final ExpenseArchiveRepository archiveRepo;
     private final GroupRepository groupRepo;
     private final UserRepository userRepo;
+    private final BalanceLedger ledger;
+    private final ExpenseSplitter splitter;
+    private final ExpenseBatchWriter batchWriter;
+    private final BalanceQueries balanceQueries;
+    private final ExpenseArchiver archiver;
+    private final GroupEvents events;
+    private final SpendingRollup spending;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
 
     public ExpenseController(
             ExpenseRepository expenseRepo,
+            ExpenseArchiveRepository archiveRepo,
             GroupRepository groupRepo,
-            UserRepository userRepo
+            UserRepository userRepo,
+            BalanceLedger ledger,
+            ExpenseSplitter splitter,
+            ExpenseBatchWriter batchWriter,
+            BalanceQueries balanceQueries,
+            ExpenseArchiver archiver,
+            GroupEvents events,
+            SpendingRollup spending,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager txManager
     ) {
         this.expenseRepo = expenseRepo;
+        this.archiveRepo = archiveRepo;
         this.groupRepo = groupRepo;
         this.userRepo = userRepo;
+        this.ledger = ledger;
+        this.splitter = splitter;
+        this.batchWriter = batchWriter;
+        this.balanceQueries = balanceQueries;
+        this.archiver = archiver;
+        this.events = events;
+        this.spending = spending;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
     }
 
     @Transactional(readOnly = true)
-    @GetMapping("/groups/{groupId}/expenses")
-    public ResponseEntity<List<Map<String, Object>>> listExpenses(@PathVariable long groupId) {
-        try {
-            List<ExpenseEntity> expenses = expenseRepo.findByGroup_IdAndArchivedFalse(groupId);
-            List<Map<String, Object>> out = new ArrayList<>();
-            for (ExpenseEntity e : expenses) {
-                Map<String, Object> m = new LinkedHashMap<>();
-                m.put("id", e.id);
-                m.put("groupId", e.group != null ? e.group.id : groupId);
-                m.put("paidByUserId", e.paidBy != null ? e.paidBy.id : null);
-                m.put("amount", e.amount != null ? e.amount : 0.0);
-                m.put("description", e.description != null ? e.description : "");
-                out.add(m);
-            }
-            return ResponseEntity.ok(out);
-        } catch (Exception ex) {
-            return ResponseEntity.ok(Collections.emptyList());
-        }
+    @GetMapping(value = "/groups/{groupId}/expenses", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ExpenseRowDto>> listExpenses(
+            @PathVariable long groupId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request
+    ) {
+        return listRows(groupId, false, after, limit, request);
     }
 
     @Transactional(readOnly = true)
-    @GetMapping("/groups/{groupId}/expenses/archived")
-    public ResponseEntity<List<Map<String, Object>>> listArchivedExpenses(@PathVariable long groupId) {
+    @GetMapping(value = "/groups/{groupId}/expenses/archived", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ExpenseRowDto>> listArchivedExpenses(
+            @PathVariable long groupId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request
+    ) {
+        return listRows(groupId, true, after, limit, request);
+    }
+
+    @GetMapping(value = "/groups/{groupId}/expenses", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportExpenses(@PathVariable long groupId) {
+        return exportRows(groupId, false);
+    }
+
+    @GetMapping(value = "/groups/{groupId}/expenses/archived", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportArchivedExpenses(@PathVariable long groupId) {
+        return exportRows(groupId, true);
+    }
+
+    // Without a limit the whole list is returned, as existing clients expect
+    private ResponseEntity<List<ExpenseRowDto>> listRows(long groupId, boolean archived, Long after, Integer limit, WebRequest request) {
         try {
-            List<ExpenseEntity> expenses = expenseRepo.findByGroup_IdAndArchivedTrue(groupId);
-            List<Map<String, Object>> out = new ArrayList<>();
-            for (ExpenseEntity e : expenses) {
-                Map<String, Object> m = new LinkedHashMap<>();
-                m.put("id", e.id);
-                m.put("groupId", e.group != null ? e.group.id : groupId);
-                m.put("paidByUserId", e.paidBy != null ? e.paidBy.id : null);
-                m.put("amount", e.amount != null ? e.amount : 0.0);
-                m.put("description", e.description != null ? e.description : "");
-                out.add(m);
-            }
-            return ResponseEntity.ok(out);
+            if (limit != null && limit <= 0) return ResponseEntity.badRequest().build();
+            Optional<Long> version = groupRepo.findVersion(groupId);
+            if (version.isEmpty()) return ResponseEntity.ok(Collections.emptyList());
+            String etag = ETags.of(version.get());
+            if (request.checkNotModified(etag)) return null;
+            Pageable page = limit == null ? Pageable.unpaged() : PageRequest.of(0, Math.min(limit, MAX_PAGE_SIZE));
+            long from = after != null ? after : 0L;
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .body(archived ? archiveRepo.findRows(groupId, from, page) : expenseRepo.findRows(groupId, false, from, page));
         } catch (Exception ex) {
             return ResponseEntity.ok(Collections.emptyList());
         }
     }
 
+    // Rows are written as they are read from a server-side cursor, so heap use does not grow with history.
+    // The body runs on an async thread, so it takes the request's replica pin along
+    private ResponseEntity<StreamingResponseBody> exportRows(long groupId, boolean archived) {
+        StreamingResponseBody body = out -> readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<ExpenseRowDto> rows = archived ? archiveRepo.streamRows(groupId) : expenseRepo.streamRows(groupId, false)) {
+                rows.forEach(row -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(row));
+                        out.write('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(ReadYourWrites.carryPin(body));
+    }
+
     @Transactional
     @PostMapping("/groups/{groupId}/expenses")
-    public ResponseEntity<ExpenseDto> createExpense(@PathVariable long groupId, @RequestBody CreateExpenseRequest req) {
+    public ResponseEntity<ExpenseDto> createExpense(
+            @PathVariable long groupId,
+            @RequestBody CreateExpenseRequest req,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
         try {
-            GroupEntity group = groupRepo.findById(groupId)
+            GroupEntity group = groupRepo.findForWrite(groupId, ifMatch != null)
                     .orElseThrow(() -> new RuntimeException("Group not found: " + groupId));
+            if (!ETags.matches(ifMatch, group.version)) return rejected(412);
 
             if (req.description == null || req.paidByUserId <= 0 || req.amount <= 0) {
-                return ResponseEntity.badRequest().build();
+                return rejected(400);
             }
             UserEntity paidBy = userRepo.findById(req.paidByUserId)
                     .orElseThrow(() -> new RuntimeException("User not found: " + req.paidByUserId));
@@ -93,143 +192,164 @@ public class ExpenseController {
             ExpenseEntity e = new ExpenseEntity();
             e.group = group;
             e.paidBy = paidBy;
-            e.amount = req.amount;
+            e.amountCents = Money.toCents(req.amount);
             e.description = req.description;
+            e.incurredOn = req.incurredOn;
             e.archived = false; // ensure new expenses are active, not old
 
             // Build splits: equal across members or use provided map
-            Map<Long, Double> splits = req.splits;
-            if (splits == null && req.splitType != null && req.splitType.equalsIgnoreCase("EQUAL")) {
-                int n = group.members.size();
-                if (n <= 0) return ResponseEntity.badRequest().build();
-                double share = Math.round((req.amount / n) * 100.0) / 100.0;
-                splits = new LinkedHashMap<>();
-                for (UserEntity m : group.members) {
-                    splits.put(m.id, share);
-                }
+            Map<Long, Long> splits;
+            try {
+                splits = splitter.splits(req, e.amountCents, group.members.stream().map(u -> u.id).toList());
+            } catch (IllegalArgumentException ex) {
+                return rejected(400);
             }
             if (splits != null) {
-                for (Map.Entry<Long, Double> entry : splits.entrySet()) {
-                    UserEntity u = userRepo.findById(entry.getKey())
-                            .orElseThrow(() -> new RuntimeException("User not found: " + entry.getKey()));
+                Map<Long, UserEntity> users = new HashMap<>();
+                for (UserEntity u : userRepo.findAllById(splits.keySet())) users.put(u.id, u);
+                for (Map.Entry<Long, Long> entry : splits.entrySet()) {
+                    UserEntity u = users.get(entry.getKey());
+                    if (u == null) throw new RuntimeException("User not found: " + entry.getKey());
                     ExpenseSplitEntity s = new ExpenseSplitEntity();
                     s.expense = e;
                     s.user = u;
-                    s.amountOwed = entry.getValue();
+                    s.amountOwedCents = entry.getValue();
                     e.splits.add(s);
                 }
             }
 
             ExpenseEntity saved = expenseRepo.save(e);
-            Map<Long, Double> dtoSplits = new LinkedHashMap<>();
+            LongLongMap deltas = ledger.record(saved);
+            spending.record(saved);
+            events.publish(GroupEventDto.EXPENSE_CREATED, groupId, groupRepo.versionAfterWrite(group, ifMatch != null), saved.id, deltas);
+            Map<Long, Long> dtoSplits = new LinkedHashMap<>();
             for (ExpenseSplitEntity s : saved.splits) {
-                dtoSplits.put(s.user.id, s.amountOwed);
+                dtoSplits.put(s.user.id, s.amountOwedCents);
             }
             ExpenseDto dto = new ExpenseDto(
                     saved.id,
                     saved.group.id,
                     saved.paidBy.id,
-                    saved.amount,
+                    saved.amountCents,
                     saved.description,
                     dtoSplits,
                     saved.archived // include archived flag to match constructor
             );
+            dto.createdAt = saved.createdAt;
+            dto.incurredOn = saved.incurredOn;
             return ResponseEntity.status(201).body(dto);
+        } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException ex) {
+            // Lost a race with a concurrent write; ConflictExceptionHandler answers 412 or 409
+            throw ex;
         } catch (Exception ex) {
-            return ResponseEntity.status(500).build();
+            return rejected(500);
         }
     }
 
-    @GetMapping("/groups/{groupId}/balances")
-    public List<DebtDto> balances(@PathVariable long groupId) {
-        GroupEntity group = groupRepo.findById(groupId)
-            .orElseThrow(() -> new RuntimeException("Group not found: " + groupId));
+    @PostMapping(value = "/groups/{groupId}/expenses/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchRowResultDto>> importExpenses(
+            @PathVariable long groupId,
+            @RequestBody List<CreateExpenseRequest> rows,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        if (!groupRepo.existsById(groupId)) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(batchWriter.write(groupId, ETags.expectedVersions(ifMatch), rows.iterator()));
+    }
 
-        Map<Long, Double> net = new LinkedHashMap<>();
-        for (UserEntity u : group.members) net.put(u.id, 0.0);
+    // One CreateExpenseRequest per line, read incrementally rather than buffered as a whole. The rows
+    // before a line that does not parse are imported; the import stops there and answers 400 with
+    // that line's index among the results
+    @PostMapping(value = "/groups/{groupId}/expenses/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<BatchRowResultDto>> importExpensesNdjson(
+            @PathVariable long groupId,
+            InputStream body,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        if (!groupRepo.existsById(groupId)) return ResponseEntity.notFound().build();
+        try (MappingIterator<CreateExpenseRequest> lines =
+                     objectMapper.readerFor(CreateExpenseRequest.class).readValues(body)) {
+            NdjsonRows rows = new NdjsonRows(lines);
+            List<BatchRowResultDto> results = batchWriter.write(groupId, ETags.expectedVersions(ifMatch), rows);
+            if (rows.failure == null) return ResponseEntity.ok(results);
+            results.add(new BatchRowResultDto(rows.index, 400, null, "Malformed JSON: " + rows.failure.getOriginalMessage()));
+            return ResponseEntity.badRequest().body(results);
+        }
+    }
 
-        List<ExpenseEntity> expenses = expenseRepo.findByGroup_IdAndArchivedFalse(groupId);
-        for (ExpenseEntity e : expenses) {
-            if (e.paidBy != null && e.amount != null) {
-                net.put(e.paidBy.id, net.getOrDefault(e.paidBy.id, 0.0) + e.amount);
-            }
-            if (e.splits != null) {
-                for (ExpenseSplitEntity s : e.splits) {
-                    if (s.user != null) {
-                        double owed = s.amountOwed == null ? 0.0 : s.amountOwed;
-                        net.put(s.user.id, net.getOrDefault(s.user.id, 0.0) - owed);
+    // Parses one row ahead, so a malformed line ends the rows instead of failing the import midway
+    private static final class NdjsonRows implements Iterator<CreateExpenseRequest> {
+
+        private final MappingIterator<CreateExpenseRequest> lines;
+        private CreateExpenseRequest next;
+        private boolean buffered;
+        int index;
+        JacksonException failure;
+
+        NdjsonRows(MappingIterator<CreateExpenseRequest> lines) {
+            this.lines = lines;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!buffered && failure == null) {
+                try {
+                    if (lines.hasNext()) {
+                        next = lines.next();
+                        buffered = true;
                     }
+                } catch (JacksonException ex) {
+                    failure = ex;
                 }
             }
+            return buffered;
         }
 
-        List<Map.Entry<Long, Double>> creditors = new ArrayList<>();
-        List<Map.Entry<Long, Double>> debtors = new ArrayList<>();
-        for (Map.Entry<Long, Double> e : net.entrySet()) {
-            double val = Math.round(e.getValue() * 100.0) / 100.0;
-            if (val > 0.0) creditors.add(Map.entry(e.getKey(), val));
-            else if (val < 0.0) debtors.add(Map.entry(e.getKey(), val));
+        @Override
+        public CreateExpenseRequest next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            buffered = false;
+            index++;
+            return next;
         }
-        creditors.sort((a,b) -> Double.compare(b.getValue(), a.getValue()));
-        debtors.sort((a,b) -> Double.compare(a.getValue(), b.getValue()));
-
-        List<DebtDto> out = new ArrayList<>();
-        int i = 0, j = 0;
-        while (i < creditors.size() && j < debtors.size()) {
-            long cred = creditors.get(i).getKey();
-            double cAmt = creditors.get(i).getValue();
-            long debt = debtors.get(j).getKey();
-            double dAmt = -debtors.get(j).getValue();
-            double pay = Math.min(cAmt, dAmt);
-            if (pay > 0.0) out.add(new DebtDto(debt, cred, Math.round(pay * 100.0) / 100.0));
-            cAmt -= pay;
-            dAmt -= pay;
-            creditors.set(i, Map.entry(cred, cAmt));
-            debtors.set(j, Map.entry(debt, -dAmt));
-            if (cAmt <= 1e-9) i++;
-            if (dAmt <= 1e-9) j++;
-        }
-        return out;
     }
 
-    private boolean isBalancesEmpty(long groupId) {
-        // Net per user: paid minus owed
-        List<ExpenseEntity> expenses = expenseRepo.findByGroup_IdAndArchivedFalse(groupId);
-        Map<Long, Double> net = new LinkedHashMap<>();
-        for (ExpenseEntity e : expenses) {
-            if (e.paidBy != null && e.amount != null) {
-                net.put(e.paidBy.id, net.getOrDefault(e.paidBy.id, 0.0) + e.amount);
-            }
-            if (e.splits != null) {
-                for (ExpenseSplitEntity s : e.splits) {
-                    if (s.user != null && s.amountOwed != null) {
-                        net.put(s.user.id, net.getOrDefault(s.user.id, 0.0) - s.amountOwed);
-                    }
-                }
-            }
-        }
-        // If any user has non-zero net, balances not empty
-        for (double v : net.values()) {
-            if (Math.abs(v) > 1e-6) return false;
+    @GetMapping("/groups/{groupId}/balances")
+    public ResponseEntity<List<DebtDto>> balances(
+            @PathVariable long groupId,
+            @RequestParam(defaultValue = SettlementPlanner.AUTO) String strategy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant asOf,
+            WebRequest request
+    ) {
+        try {
+            Optional<Long> version = groupRepo.findVersion(groupId);
+            if (version.isEmpty()) return ResponseEntity.notFound().build();
+            // e.g. ?asOf=2026-03-01T00:00:00Z: nearest checkpoint plus the events after it
+            if (asOf != null) return ResponseEntity.ok(balanceQueries.debtsAsOf(groupId, strategy, asOf));
+            String etag = ETags.of(version.get());
+            if (request.checkNotModified(etag)) return null;
+            return ResponseEntity.ok().eTag(etag).body(balanceQueries.debts(groupId, version.get(), strategy));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
         }
-        return true;
     }
 
     @Transactional
     @PostMapping("/groups/{groupId}/settle")
     public ResponseEntity<Void> settle(
             @PathVariable long groupId,
-            @RequestBody Map<String, Object> req
+            @RequestBody Map<String, Object> req,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
         try {
             Long fromUserId = ((Number) req.getOrDefault("fromUserId", 0)).longValue();
             Long toUserId = ((Number) req.getOrDefault("toUserId", 0)).longValue();
-            Double amount = ((Number) req.getOrDefault("amount", 0)).doubleValue();
-            if (fromUserId <= 0 || toUserId <= 0 || amount <= 0) {
-                return ResponseEntity.badRequest().build();
+            long amountCents = Money.toCents(((Number) req.getOrDefault("amount", 0)).doubleValue());
+            if (fromUserId <= 0 || toUserId <= 0 || amountCents <= 0) {
+                return rejected(400);
             }
-            GroupEntity group = groupRepo.findById(groupId)
+            GroupEntity group = groupRepo.findForWrite(groupId, ifMatch != null)
                     .orElseThrow(() -> new RuntimeException("Group not found: " + groupId));
+            if (!ETags.matches(ifMatch, group.version)) return rejected(412);
             UserEntity fromUser = userRepo.findById(fromUserId)
                     .orElseThrow(() -> new RuntimeException("User not found: " + fromUserId));
             UserEntity toUser = userRepo.findById(toUserId)
@@ -239,52 +359,95 @@ public class ExpenseController {
             ExpenseEntity e = new ExpenseEntity();
             e.group = group;
             e.paidBy = fromUser;
-            e.amount = amount;
+            e.amountCents = amountCents;
             e.description = "Settlement";
+            e.settlement = true;
             ExpenseSplitEntity s = new ExpenseSplitEntity();
             s.expense = e;
             s.user = toUser;
-            s.amountOwed = amount;
+            s.amountOwedCents = amountCents;
             e.splits.add(s);
             expenseRepo.save(e);
+            LongLongMap deltas = ledger.record(e);
+            long version = groupRepo.versionAfterWrite(group, ifMatch != null);
+            events.publish(GroupEventDto.SETTLED, groupId, version, e.id, deltas);
 
-            // If balances are now empty, archive all active expenses
-            if (isBalancesEmpty(groupId)) {
-                List<ExpenseEntity> actives = expenseRepo.findByGroup_IdAndArchivedFalse(groupId);
-                for (ExpenseEntity x : actives) x.archived = true;
-                if (!actives.isEmpty()) expenseRepo.saveAll(actives);
+            // If balances are now empty, move all active expenses to the archive with set-based statements
+            if (ledger.isSettled(groupId)) {
+                archiver.archiveActive(groupId);
+                ledger.reset(groupId);
+                events.publish(GroupEventDto.ARCHIVED, groupId, version);
             }
 
             return ResponseEntity.noContent().build();
+        } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException ex) {
+            throw ex;
         } catch (Exception ex) {
-            return ResponseEntity.status(500).build();
+            return rejected(500);
         }
     }
 
     @Transactional
     @PostMapping("/groups/{groupId}/clear-old")
-    public ResponseEntity<Void> clearOld(@PathVariable long groupId) {
+    public ResponseEntity<Void> clearOld(
+            @PathVariable long groupId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
         try {
-            // Delete all archived expenses for this group
-            List<ExpenseEntity> archived = expenseRepo.findByGroup_IdAndArchivedTrue(groupId);
-            if (!archived.isEmpty()) expenseRepo.deleteAll(archived);
+            Optional<GroupEntity> group = groupRepo.findForWrite(groupId, ifMatch != null);
+            if (group.isEmpty()) return ResponseEntity.noContent().build();
+            if (!ETags.matches(ifMatch, group.get().version)) return rejected(412);
+            // Hides all archived expenses at once; the rows are purged in the background.
+            // Nothing to clear leaves the version as it was
+            if (archiver.clear(groupId)) {
+                events.publish(GroupEventDto.HISTORY_CLEARED, groupId, groupRepo.versionAfterWrite(group.get(), ifMatch != null));
+            } else {
+                rollback();
+            }
             return ResponseEntity.noContent().build();
+        } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException ex) {
+            throw ex;
         } catch (Exception ex) {
-            return ResponseEntity.status(500).build();
+            return rejected(500);
         }
     }
 
     @Transactional
     @DeleteMapping("/groups/{groupId}/expenses/{expenseId}")
-    public ResponseEntity<Void> deleteExpense(@PathVariable long groupId, @PathVariable long expenseId) {
+    public ResponseEntity<Void> deleteExpense(
+            @PathVariable long groupId,
+            @PathVariable long expenseId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
         try {
-            if (expenseRepo.existsById(expenseId)) {
-                expenseRepo.deleteById(expenseId);
+            // The group is locked before the expense graph loads it, otherwise the lock has no effect
+            Optional<GroupEntity> group = groupRepo.findForWrite(groupId, ifMatch != null);
+            // Payer, group and splits in one query rather than one per association
+            Optional<ExpenseEntity> existing = expenseRepo.findWithDetailsById(expenseId);
+            if (group.isPresent() && existing.isPresent() && existing.get().group.id == groupId) {
+                if (!ETags.matches(ifMatch, group.get().version)) return rejected(412);
+                ExpenseEntity e = existing.get();
+                LongLongMap deltas = Boolean.TRUE.equals(e.archived) ? null : ledger.reverse(e);
+                spending.reverse(e);
+                expenseRepo.delete(e);
+                events.publish(GroupEventDto.EXPENSE_DELETED, groupId, groupRepo.versionAfterWrite(group.get(), ifMatch != null), expenseId, deltas);
                 return ResponseEntity.noContent().build();
             }
-            return ResponseEntity.notFound().build();
+            return rejected(404);
+        } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException ex) {
+            throw ex;
         } catch (Exception ex) {
-            return ResponseEntity.status(500).build();
+            return rejected(500);
         }
     }
+
+    // Early exits from a write must not commit the version increment made by findForWrite
+    private static <T> ResponseEntity<T> rejected(int status) {
+        rollback();
+        return ResponseEntity.status(status).build();
+    }
+
+    private static void rollback() {
+        TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+    }
 }
@@ -1,51 +1,148 @@
 package com.expensetracker.backend.controller;
 
 import com.expensetracker.backend.dto.CreateGroupRequest;
+import com.expensetracker.backend.dto.DebtDto;
+import com.expensetracker.backend.dto.ExpenseRowDto;
 import com.expensetracker.backend.dto.GroupDto;
+import com.expensetracker.backend.dto.GroupEventDto;
+import com.expensetracker.backend.dto.GroupMemberRowDto;
+import com.expensetracker.backend.dto.GroupSummaryDto;
+import com.expensetracker.backend.dto.UserDto;
 import com.expensetracker.backend.entity.GroupEntity;
 import com.expensetracker.backend.entity.UserEntity;
+import com.expensetracker.backend.repo.ExpenseRepository;
 import com.expensetracker.backend.repo.GroupRepository;
+import com.expensetracker.backend.repo.RecurringExpenseRepository;
 import com.expensetracker.backend.repo.UserRepository;
+import com.expensetracker.backend.service.BalanceLedger;
+import com.expensetracker.backend.service.BalanceQueries;
+import com.expensetracker.backend.service.ExpenseArchiver;
+import com.expensetracker.backend.service.GroupEvents;
+import com.expensetracker.backend.service.GroupQueries;
+import com.expensetracker.backend.service.SpendingRollup;
+import com.expensetracker.backend.service.settlement.SettlementPlanner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.web.bind.annotation.CrossOrigin;
 
-@CrossOrigin(origins = "http://localhost:5173", allowedHeaders = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS})
+@CrossOrigin(origins = "http://localhost:5173", allowedHeaders = "*", exposedHeaders = "ETag", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS})
 @RestController
 public class GroupController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int SUMMARY_PAGE_SIZE = 100;
+
     private final GroupRepository groupRepo;
     private final UserRepository userRepo;
+    private final ExpenseRepository expenseRepo;
+    private final BalanceLedger ledger;
+    private final GroupQueries groupQueries;
+    private final BalanceQueries balanceQueries;
+    private final GroupEvents events;
+    private final SpendingRollup spending;
+    private final ExpenseArchiver archiver;
+    private final RecurringExpenseRepository recurringRepo;
 
-    public GroupController(GroupRepository groupRepo, UserRepository userRepo) {
+    public GroupController(
+            GroupRepository groupRepo,
+            UserRepository userRepo,
+            ExpenseRepository expenseRepo,
+            BalanceLedger ledger,
+            GroupQueries groupQueries,
+            BalanceQueries balanceQueries,
+            GroupEvents events,
+            SpendingRollup spending,
+            ExpenseArchiver archiver,
+            RecurringExpenseRepository recurringRepo
+    ) {
         this.groupRepo = groupRepo;
         this.userRepo = userRepo;
+        this.expenseRepo = expenseRepo;
+        this.ledger = ledger;
+        this.groupQueries = groupQueries;
+        this.balanceQueries = balanceQueries;
+        this.events = events;
+        this.spending = spending;
+        this.archiver = archiver;
+        this.recurringRepo = recurringRepo;
     }
 
+    // Without a limit every matching group is returned, as existing clients expect
+    @Transactional(readOnly = true)
     @GetMapping("/groups")
-    public List<GroupDto> listGroups() {
-        return groupRepo.findAll().stream()
-                .map(g -> new GroupDto(
-                        g.id,
-                        g.name,
-                        g.members.stream().map(u -> u.id).toList()
-                ))
-                .toList();
+    public ResponseEntity<List<GroupDto>> listGroups(
+            @RequestParam(required = false) Long memberId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit
+    ) {
+        if (limit != null && limit <= 0) return ResponseEntity.badRequest().build();
+        List<GroupMemberRowDto> rows;
+        if (limit == null && after == null) {
+            rows = memberId == null ? groupRepo.findAllMemberRows() : groupRepo.findMemberRowsForMember(memberId);
+        } else {
+            long from = after != null ? after : 0L;
+            Pageable page = limit == null ? PageRequest.of(0, MAX_PAGE_SIZE) : PageRequest.of(0, Math.min(limit, MAX_PAGE_SIZE));
+            List<Long> ids = memberId == null
+                    ? groupRepo.findIdsAfter(from, page)
+                    : groupRepo.findIdsForMemberAfter(memberId, from, page);
+            rows = ids.isEmpty() ? List.of() : groupRepo.findMemberRowsByGroupIds(ids);
+        }
+        return ResponseEntity.ok(toGroups(rows));
+    }
+
+    private static List<GroupDto> toGroups(List<GroupMemberRowDto> rows) {
+        Map<Long, GroupDto> groups = new LinkedHashMap<>();
+        for (GroupMemberRowDto row : rows) {
+            GroupDto g = groups.computeIfAbsent(row.groupId, id -> new GroupDto(id, row.name, new ArrayList<>()));
+            if (row.memberId != null) g.memberUserIds.add(row.memberId);
+        }
+        return new ArrayList<>(groups.values());
     }
 
     @GetMapping("/groups/{groupId}")
-    public GroupDto getGroup(@PathVariable long groupId) {
-        GroupEntity g = groupRepo.findById(groupId)
-                .orElseThrow(() -> new RuntimeException("Group not found: " + groupId));
+    public ResponseEntity<GroupDto> getGroup(@PathVariable long groupId, WebRequest request) {
+        Long version = groupRepo.findVersion(groupId).orElse(null);
+        if (version == null) return ResponseEntity.notFound().build();
+        String etag = ETags.of(version);
+        if (request.checkNotModified(etag)) return null;
+        return ResponseEntity.ok().eTag(etag).body(groupQueries.group(groupId, version));
+    }
 
-        return new GroupDto(
-                g.id,
-                g.name,
-                g.members.stream().map(u -> u.id).toList()
-        );
+    // Group, member profiles, first page of active expenses and debts; 304 while the version is unchanged.
+    // Read on the primary, since it fills the group and balance caches.
+    @Transactional
+    @GetMapping("/groups/{groupId}/summary")
+    public ResponseEntity<GroupSummaryDto> getGroupSummary(
+            @PathVariable long groupId,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request
+    ) {
+        if (limit != null && limit <= 0) return ResponseEntity.badRequest().build();
+        Long version = groupRepo.findVersion(groupId).orElse(null);
+        if (version == null) return ResponseEntity.notFound().build();
+        String etag = ETags.of(version);
+        if (request.checkNotModified(etag)) return null;
+
+        int pageSize = limit == null ? SUMMARY_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        List<UserDto> members = userRepo.findMembersOf(groupId);
+        GroupDto group = groupQueries.group(groupId, version);
+        List<ExpenseRowDto> expenses = expenseRepo.findRows(groupId, false, 0L, PageRequest.of(0, pageSize));
+        Long nextAfter = expenses.size() == pageSize ? expenses.get(pageSize - 1).id : null;
+        List<DebtDto> debts = balanceQueries.debts(groupId, version, SettlementPlanner.AUTO);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .body(new GroupSummaryDto(group, version, members, expenses, nextAfter, debts));
     }
 
     @PostMapping("/groups")
@@ -67,25 +164,46 @@ public class GroupController {
         );
     }
 
+    @Transactional
     @PutMapping("/groups/{groupId}")
-    public GroupDto updateGroupName(@PathVariable long groupId, @RequestBody GroupDto req) {
+    public ResponseEntity<GroupDto> updateGroupName(
+            @PathVariable long groupId,
+            @RequestBody GroupDto req,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
         GroupEntity g = groupRepo.findById(groupId)
                 .orElseThrow(() -> new RuntimeException("Group not found: " + groupId));
+        if (!ETags.matches(ifMatch, g.version)) return ResponseEntity.status(412).build();
         g.name = req.name;
-        GroupEntity saved = groupRepo.save(g);
-        return new GroupDto(
-                saved.id,
-                saved.name,
-                saved.members.stream().map(u -> u.id).toList()
-        );
+        // Flushed here so the response can carry the incremented version
+        GroupEntity saved = groupRepo.saveAndFlush(g);
+        events.publish(GroupEventDto.GROUP_UPDATED, groupId, saved.version);
+        return ResponseEntity.ok()
+                .eTag(ETags.of(saved.version))
+                .body(new GroupDto(
+                        saved.id,
+                        saved.name,
+                        saved.members.stream().map(u -> u.id).toList()
+                ));
     }
 
+    @Transactional
     @DeleteMapping("/groups/{groupId}")
-    public ResponseEntity<Void> deleteGroup(@PathVariable long groupId) {
-        if (!groupRepo.existsById(groupId)) {
-            return ResponseEntity.notFound().build();
-        }
-        groupRepo.deleteById(groupId);
+    public ResponseEntity<Void> deleteGroup(
+            @PathVariable long groupId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        // Locked like any other write, so a concurrent clear-old cannot queue the same purge
+        if (groupRepo.lockById(groupId).isEmpty()) return ResponseEntity.notFound().build();
+        GroupEntity g = groupRepo.findById(groupId).orElseThrow();
+        if (!ETags.matches(ifMatch, g.version)) return ResponseEntity.status(412).build();
+        ledger.forget(groupId);
+        archiver.forget(groupId);
+        spending.forget(groupId);
+        recurringRepo.deleteSplitsByGroupId(groupId);
+        recurringRepo.deleteByGroupId(groupId);
+        groupRepo.delete(g);
+        events.publish(GroupEventDto.GROUP_DELETED, groupId, null);
         return ResponseEntity.noContent().build();
     }
 }
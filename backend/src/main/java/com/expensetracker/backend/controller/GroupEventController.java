@@ -0,0 +1,30 @@
+package com.expensetracker.backend.controller;
+
+import com.expensetracker.backend.repo.GroupRepository;
+import com.expensetracker.backend.service.GroupEventBroadcaster;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@CrossOrigin(origins = "http://localhost:5173")
+@RestController
+public class GroupEventController {
+
+    private final GroupRepository groupRepo;
+    private final GroupEventBroadcaster broadcaster;
+
+    public GroupEventController(GroupRepository groupRepo, GroupEventBroadcaster broadcaster) {
+        this.groupRepo = groupRepo;
+        this.broadcaster = broadcaster;
+    }
+
+    // Committed changes to the group as they happen; the stream itself never holds a request thread
+    @GetMapping(value = "/groups/{groupId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(@PathVariable long groupId) {
+        if (!groupRepo.existsById(groupId)) return ResponseEntity.notFound().build();
+        SseEmitter emitter = broadcaster.subscribe(groupId);
+        if (emitter == null) return ResponseEntity.status(503).build();
+        return ResponseEntity.ok(emitter);
+    }
+}
@@ -0,0 +1,127 @@
+package com.expensetracker.backend.controller;
+
+import com.expensetracker.backend.dto.CreateRecurringExpenseRequest;
+import com.expensetracker.backend.dto.RecurringExpenseDto;
+import com.expensetracker.backend.entity.RecurringExpenseEntity;
+import com.expensetracker.backend.repo.GroupRepository;
+import com.expensetracker.backend.repo.RecurringExpenseRepository;
+import com.expensetracker.backend.repo.UserRepository;
+import com.expensetracker.backend.service.RecurringExpenseScheduler;
+import com.expensetracker.backend.util.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@CrossOrigin(origins = "http://localhost:5173", allowedHeaders = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.DELETE, RequestMethod.OPTIONS})
+@RestController
+public class RecurringExpenseController {
+
+    // Consecutive gaps checked against the minimum period; enough to see a week of an hourly-or-slower schedule
+    private static final int MIN_PERIOD_SAMPLES = 200;
+
+    private final RecurringExpenseRepository repo;
+    private final GroupRepository groupRepo;
+    private final UserRepository userRepo;
+    private final RecurringExpenseScheduler scheduler;
+    private final Duration minPeriod;
+    private final int maxBackfill;
+
+    public RecurringExpenseController(
+            RecurringExpenseRepository repo,
+            GroupRepository groupRepo,
+            UserRepository userRepo,
+            RecurringExpenseScheduler scheduler,
+            @Value("${app.recurring.min-period:PT1H}") Duration minPeriod,
+            @Value("${app.recurring.max-backfill:100}") int maxBackfill
+    ) {
+        this.repo = repo;
+        this.groupRepo = groupRepo;
+        this.userRepo = userRepo;
+        this.scheduler = scheduler;
+        this.minPeriod = minPeriod;
+        this.maxBackfill = maxBackfill;
+    }
+
+    @Transactional(readOnly = true)
+    @GetMapping("/groups/{groupId}/recurring")
+    public ResponseEntity<List<RecurringExpenseDto>> list(@PathVariable long groupId) {
+        if (groupRepo.findVersion(groupId).isEmpty()) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(repo.findByGroupIdOrderById(groupId).stream().map(RecurringExpenseDto::new).toList());
+    }
+
+    // Nothing is posted here; the scheduler posts every period from the first one on, including past ones.
+    // Schedules that fire more often than the minimum period, or start more than max-backfill periods ago, are rejected
+    @Transactional
+    @PostMapping("/groups/{groupId}/recurring")
+    public ResponseEntity<RecurringExpenseDto> create(@PathVariable long groupId, @RequestBody CreateRecurringExpenseRequest req) {
+        if (req.description == null || req.paidByUserId <= 0 || req.amount <= 0 || req.cron == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean custom = req.splits != null;
+        if (!custom && (req.splitType == null || !req.splitType.equalsIgnoreCase(RecurringExpenseEntity.EQUAL))) {
+            return ResponseEntity.badRequest().build();
+        }
+        CronExpression cron;
+        ZoneId zone;
+        try {
+            cron = CronExpression.parse(req.cron);
+            zone = ZoneId.of(req.timeZone == null ? "UTC" : req.timeZone);
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+        Instant now = Instant.now();
+        Instant first = RecurringExpenseScheduler.firstRun(cron, zone, req.startAt == null ? now : req.startAt);
+        if (first == null) return ResponseEntity.badRequest().build();
+        Duration gap = RecurringExpenseScheduler.shortestGap(cron, zone, first, MIN_PERIOD_SAMPLES);
+        if (gap != null && gap.compareTo(minPeriod) < 0) return ResponseEntity.badRequest().build();
+        if (RecurringExpenseScheduler.periodsThrough(cron, zone, first, now, maxBackfill) > maxBackfill) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (groupRepo.findVersion(groupId).isEmpty()) return ResponseEntity.notFound().build();
+        Set<Long> userIds = new HashSet<>();
+        userIds.add(req.paidByUserId);
+        if (custom) userIds.addAll(req.splits.keySet());
+        if (userRepo.findExistingIds(userIds).size() != userIds.size()) return ResponseEntity.notFound().build();
+
+        RecurringExpenseEntity t = new RecurringExpenseEntity();
+        t.groupId = groupId;
+        t.paidByUserId = req.paidByUserId;
+        t.amountCents = Money.toCents(req.amount);
+        t.description = req.description;
+        t.splitType = custom ? RecurringExpenseEntity.CUSTOM : RecurringExpenseEntity.EQUAL;
+        if (custom) {
+            req.splits.forEach((userId, amount) -> t.splitCents.put(userId, Money.toCents(amount == null ? 0.0 : amount)));
+        }
+        t.cron = req.cron;
+        t.timeZone = zone.getId();
+        t.nextRunAt = first;
+        return ResponseEntity.status(201).body(new RecurringExpenseDto(repo.save(t)));
+    }
+
+    // Expenses already posted stay
+    @Transactional
+    @DeleteMapping("/groups/{groupId}/recurring/{id}")
+    public ResponseEntity<Void> delete(@PathVariable long groupId, @PathVariable long id) {
+        RecurringExpenseEntity t = repo.findByIdAndGroupId(id, groupId).orElse(null);
+        if (t == null) return ResponseEntity.notFound().build();
+        repo.delete(t);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Posts everything due now instead of waiting for the next scheduled run; returns the number posted
+    @PostMapping("/admin/recurring/run")
+    public ResponseEntity<Integer> run() {
+        return ResponseEntity.ok(scheduler.postDue(Instant.now()));
+    }
+}
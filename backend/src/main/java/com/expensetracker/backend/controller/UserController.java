@@ -1,14 +1,28 @@
 package com.expensetracker.backend.controller;
 
 import com.expensetracker.backend.dto.CreateUserRequest;
+import com.expensetracker.backend.dto.UserDeletionResultDto;
+import com.expensetracker.backend.dto.UserBalancesDto;
 import com.expensetracker.backend.dto.UserDto;
+import com.expensetracker.backend.dto.UserGroupDto;
+import com.expensetracker.backend.entity.UserBalanceEntity;
 import com.expensetracker.backend.entity.UserEntity;
-import com.expensetracker.backend.repo.UserRepository;
 import com.expensetracker.backend.repo.GroupRepository;
+import com.expensetracker.backend.repo.UserBalanceRepository;
+import com.expensetracker.backend.repo.UserRepository;
+import com.expensetracker.backend.service.UserPurger;
+import com.expensetracker.backend.service.search.UserSearch;
+import com.expensetracker.backend.util.Money;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 @CrossOrigin(origins = "http://localhost:5173")
 @RestController
@@ -16,12 +30,25 @@ public class UserController {
 
     private final UserRepository userRepo;
     private final GroupRepository groupRepo;
+    private final UserPurger userPurger;
+    private final UserSearch userSearch;
+    private final UserBalanceRepository userBalanceRepo;
 
-    public UserController(UserRepository userRepo, GroupRepository groupRepo) {
+    public UserController(
+            UserRepository userRepo,
+            GroupRepository groupRepo,
+            UserPurger userPurger,
+            UserSearch userSearch,
+            UserBalanceRepository userBalanceRepo
+    ) {
         this.userRepo = userRepo;
         this.groupRepo = groupRepo;
+        this.userPurger = userPurger;
+        this.userSearch = userSearch;
+        this.userBalanceRepo = userBalanceRepo;
     }
 
+    @Transactional(readOnly = true)
     @GetMapping("/users")
     public List<UserDto> listUsers() {
         return userRepo.findAll().stream()
@@ -29,30 +56,89 @@ public class UserController {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    @GetMapping("/users/by-email")
+    public ResponseEntity<UserDto> findByEmail(@RequestParam String email) {
+        if (email.isBlank()) return ResponseEntity.badRequest().build();
+        return userRepo.findByEmail(email.trim())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Transactional(readOnly = true)
+    @GetMapping("/users/{id}/groups")
+    public ResponseEntity<List<UserGroupDto>> userGroups(@PathVariable long id) {
+        if (!userRepo.existsById(id)) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(groupRepo.findGroupsOfMember(id));
+    }
+
+    // Net per counterparty (split by group) and per group, from the user's rows in the pairwise rollup
+    @Transactional(readOnly = true)
+    @GetMapping("/users/{id}/balances")
+    public ResponseEntity<UserBalancesDto> userBalances(@PathVariable long id) {
+        List<UserBalanceEntity> rows = userBalanceRepo.findByUserIdOrderByCounterpartyIdAscGroupIdAsc(id);
+        if (rows.isEmpty() && !userRepo.existsById(id)) return ResponseEntity.notFound().build();
+
+        UserBalancesDto dto = new UserBalancesDto(id);
+        Map<Long, UserBalancesDto.CounterpartyBalanceDto> counterparties = new LinkedHashMap<>();
+        Map<Long, Long> groups = new TreeMap<>();
+        for (UserBalanceEntity b : rows) {
+            counterparties.computeIfAbsent(b.counterpartyId, UserBalancesDto.CounterpartyBalanceDto::new)
+                    .add(b.groupId, b.netCents);
+            groups.merge(b.groupId, b.netCents, Long::sum);
+            dto.netCents += b.netCents;
+        }
+        dto.net = Money.toAmount(dto.netCents);
+        dto.counterparties.addAll(counterparties.values());
+        groups.forEach((groupId, cents) -> dto.groups.add(new UserBalancesDto.GroupNetDto(groupId, cents)));
+        return ResponseEntity.ok(dto);
+    }
+
     @PostMapping("/users")
-    public UserDto createUser(@RequestBody CreateUserRequest req) {
+    public ResponseEntity<UserDto> createUser(@RequestBody CreateUserRequest req) {
         UserEntity u = new UserEntity();
         u.name = req.name;
-        u.email = req.email;
+        u.email = req.email == null ? null : req.email.trim();
 
-        UserEntity saved = userRepo.save(u);
-        return new UserDto(saved.id, saved.name, saved.email);
+        UserEntity saved;
+        try {
+            saved = userRepo.save(u);
+        } catch (DataIntegrityViolationException e) {
+            // Emails are unique regardless of case
+            return ResponseEntity.status(409).build();
+        }
+        UserDto dto = new UserDto(saved.id, saved.name, saved.email);
+        userSearch.indexed(dto);
+        return ResponseEntity.ok(dto);
     }
 
     @DeleteMapping("/users/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable long id) {
-        var userOpt = userRepo.findById(id);
-        if (userOpt.isEmpty()) return ResponseEntity.notFound().build();
-
-        // Detach user from all groups to satisfy FK constraints
-        UserEntity user = userOpt.get();
-        groupRepo.findAll().forEach(g -> {
-            if (g.members.removeIf(u -> u.id == user.id)) {
-                groupRepo.save(g);
-            }
-        });
-
-        userRepo.deleteById(id);
+        UserDeletionResultDto result;
+        try {
+            result = userPurger.delete(List.of(id));
+        } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+            // Charged by a concurrent write the group locks did not hold off; see UserPurger
+            return ResponseEntity.status(409).build();
+        }
+        userSearch.removed(result.deleted);
+        if (!result.notFound.isEmpty()) return ResponseEntity.notFound().build();
+        // Still part of unsettled expenses; settle the group or delete those expenses first
+        if (!result.blocked.isEmpty()) return ResponseEntity.status(409).build();
         return ResponseEntity.noContent().build();
     }
+
+    // Bulk purge, e.g. DELETE /users?ids=1,2,3
+    @DeleteMapping("/users")
+    public ResponseEntity<UserDeletionResultDto> deleteUsers(@RequestParam List<Long> ids) {
+        if (ids.isEmpty()) return ResponseEntity.badRequest().build();
+        UserDeletionResultDto result;
+        try {
+            result = userPurger.delete(ids);
+        } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+            return ResponseEntity.status(409).build();
+        }
+        userSearch.removed(result.deleted);
+        return ResponseEntity.ok(result);
+    }
 }
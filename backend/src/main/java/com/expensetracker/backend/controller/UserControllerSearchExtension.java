@@ -1,7 +1,8 @@
 package com.expensetracker.backend.controller;
 
-import com.expensetracker.backend.entity.UserEntity;
-import com.expensetracker.backend.repo.UserRepository;
+import com.expensetracker.backend.dto.UserDto;
+import com.expensetracker.backend.service.search.UserSearch;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -10,12 +11,19 @@ import java.util.List;
 
 @RestController
 public class UserControllerSearchExtension {
-    private final UserRepository userRepo;
-    public UserControllerSearchExtension(UserRepository userRepo) { this.userRepo = userRepo; }
+    private static final int MAX_LIMIT = 100;
+
+    private final UserSearch userSearch;
+    public UserControllerSearchExtension(UserSearch userSearch) { this.userSearch = userSearch; }
 
     @GetMapping("/users/search")
-    public List<UserEntity> searchUsers(@RequestParam("q") String q) {
-        if (q == null || q.isBlank()) return List.of();
-        return userRepo.findByNameContainingIgnoreCase(q.trim());
+    public ResponseEntity<List<UserDto>> searchUsers(
+            @RequestParam("q") String q,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "0") int offset
+    ) {
+        if (limit <= 0 || limit > MAX_LIMIT || offset < 0) return ResponseEntity.badRequest().build();
+        if (q == null || q.isBlank()) return ResponseEntity.ok(List.of());
+        return ResponseEntity.ok(userSearch.search(q.trim(), limit, offset));
     }
-}
\ No newline at end of file
+}
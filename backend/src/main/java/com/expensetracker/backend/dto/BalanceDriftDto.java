@@ -0,0 +1,13 @@
+package com.expensetracker.backend.dto;
+
+public class BalanceDriftDto {
+    public long userId;
+    public long ledgerCents;     // stored running balance
+    public long recomputedCents; // balance rebuilt from active expenses
+
+    public BalanceDriftDto(long userId, long ledgerCents, long recomputedCents) {
+        this.userId = userId;
+        this.ledgerCents = ledgerCents;
+        this.recomputedCents = recomputedCents;
+    }
+}
@@ -0,0 +1,15 @@
+package com.expensetracker.backend.dto;
+
+public class BatchRowResultDto {
+    public int index;      // position of the row in the submitted batch
+    public int status;     // 201 when created, otherwise the HTTP status the single endpoint would return
+    public Long expenseId;
+    public String error;
+
+    public BatchRowResultDto(int index, int status, Long expenseId, String error) {
+        this.index = index;
+        this.status = status;
+        this.expenseId = expenseId;
+        this.error = error;
+    }
+}
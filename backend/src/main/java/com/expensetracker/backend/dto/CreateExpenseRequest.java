@@ -1,11 +1,13 @@
 package com.expensetracker.backend.dto;
 
+import java.time.LocalDate;
 import java.util.Map;
 
 public class CreateExpenseRequest {
     public long paidByUserId;
     public double amount;
     public String description;
+    public LocalDate incurredOn;       // optional, e.g. "2026-03-14"
 
     public String splitType;           // "EQUAL" or "CUSTOM"
     public Map<Long, Double> splits;   // used when CUSTOM
@@ -0,0 +1,10 @@
+package com.expensetracker.backend.dto;
+
+import java.time.Instant;
+
+// An expense template plus its schedule; incurredOn is ignored, each posting uses its period's day
+public class CreateRecurringExpenseRequest extends CreateExpenseRequest {
+    public String cron;                // Spring cron, e.g. "0 0 9 1 * *" (09:00 on the 1st) or "@monthly"
+    public String timeZone;            // optional, defaults to "UTC"
+    public Instant startAt;            // optional; the first period is the first cron time after it
+}
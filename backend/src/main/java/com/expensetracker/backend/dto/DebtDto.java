@@ -1,13 +1,17 @@
 package com.expensetracker.backend.dto;
 
+import com.expensetracker.backend.util.Money;
+
 public class DebtDto {
     public long fromUserId; // owes
     public long toUserId;   // is owed
+    public long amountCents;
     public double amount;
 
-    public DebtDto(long fromUserId, long toUserId, double amount) {
+    public DebtDto(long fromUserId, long toUserId, long amountCents) {
         this.fromUserId = fromUserId;
         this.toUserId = toUserId;
-        this.amount = amount;
+        this.amountCents = amountCents;
+        this.amount = Money.toAmount(amountCents);
     }
 }
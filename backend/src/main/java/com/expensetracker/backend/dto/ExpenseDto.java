@@ -1,25 +1,35 @@
 package com.expensetracker.backend.dto;
 
+import com.expensetracker.backend.util.Money;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class ExpenseDto {
     public Long id;
     public Long groupId;
     public Long paidByUserId;
+    public long amountCents;
     public Double amount;
     public String description;
     public Boolean archived;
+    public Instant createdAt;
+    public LocalDate incurredOn;
 
     // userId -> amountOwed
     public Map<Long, Double> splits;
 
-    public ExpenseDto(Long id, Long groupId, Long paidByUserId, Double amount, String description, Map<Long, Double> splits, Boolean archived) {
+    public ExpenseDto(Long id, Long groupId, Long paidByUserId, long amountCents, String description, Map<Long, Long> splitCents, Boolean archived) {
         this.id = id;
         this.groupId = groupId;
         this.paidByUserId = paidByUserId;
-        this.amount = amount;
+        this.amountCents = amountCents;
+        this.amount = Money.toAmount(amountCents);
         this.description = description;
-        this.splits = splits;
+        this.splits = new LinkedHashMap<>();
+        splitCents.forEach((userId, cents) -> this.splits.put(userId, Money.toAmount(cents)));
         this.archived = archived;
     }
 }
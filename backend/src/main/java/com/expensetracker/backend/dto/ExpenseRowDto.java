@@ -0,0 +1,34 @@
+package com.expensetracker.backend.dto;
+
+import com.expensetracker.backend.util.Money;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Flat expense listing row, projected straight from the query without loading splits
+public class ExpenseRowDto {
+    public Long id;
+    public Long groupId;
+    public Long paidByUserId;
+    public long amountCents;
+    public double amount;
+    public String description;
+    public Instant createdAt;
+    public LocalDate incurredOn;
+
+    public ExpenseRowDto(Long id, Long groupId, Long paidByUserId, Long amountCents, String description,
+                         Instant createdAt, LocalDate incurredOn) {
+        this(id, groupId, paidByUserId, amountCents, description);
+        this.createdAt = createdAt;
+        this.incurredOn = incurredOn;
+    }
+
+    public ExpenseRowDto(Long id, Long groupId, Long paidByUserId, Long amountCents, String description) {
+        this.id = id;
+        this.groupId = groupId;
+        this.paidByUserId = paidByUserId;
+        this.amountCents = amountCents != null ? amountCents : 0L;
+        this.amount = Money.toAmount(this.amountCents);
+        this.description = description != null ? description : "";
+    }
+}
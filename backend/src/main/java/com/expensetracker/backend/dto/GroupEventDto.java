@@ -0,0 +1,29 @@
+package com.expensetracker.backend.dto;
+
+import java.util.Map;
+
+// One change to a group, pushed to subscribers of /groups/{id}/events once the change has committed
+public class GroupEventDto {
+    public static final String EXPENSE_CREATED = "ExpenseCreated";
+    public static final String EXPENSE_DELETED = "ExpenseDeleted";
+    public static final String SETTLED = "Settled";
+    public static final String ARCHIVED = "Archived";
+    public static final String HISTORY_CLEARED = "HistoryCleared";
+    public static final String GROUP_UPDATED = "GroupUpdated";
+    public static final String GROUP_DELETED = "GroupDeleted";
+
+    public String type;
+    public Long groupId;
+    // Group version after the change, i.e. the ETag a fresh read returns; null once the group is deleted
+    public Long version;
+    public Long expenseId;
+    // userId -> change of that member's net position in cents (positive: is owed more)
+    public Map<Long, Long> balanceDeltas;
+
+    public GroupEventDto(String type, Long groupId, Long expenseId, Map<Long, Long> balanceDeltas) {
+        this.type = type;
+        this.groupId = groupId;
+        this.expenseId = expenseId;
+        this.balanceDeltas = balanceDeltas;
+    }
+}
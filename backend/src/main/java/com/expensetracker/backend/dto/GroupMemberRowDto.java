@@ -0,0 +1,14 @@
+package com.expensetracker.backend.dto;
+
+// One (group, member) pair from the group_members join; memberId is null for empty groups
+public class GroupMemberRowDto {
+    public Long groupId;
+    public String name;
+    public Long memberId;
+
+    public GroupMemberRowDto(Long groupId, String name, Long memberId) {
+        this.groupId = groupId;
+        this.name = name;
+        this.memberId = memberId;
+    }
+}
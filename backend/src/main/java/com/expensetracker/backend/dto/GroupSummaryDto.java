@@ -0,0 +1,22 @@
+package com.expensetracker.backend.dto;
+
+import java.util.List;
+
+// Everything the group page renders, read in one transaction
+public class GroupSummaryDto {
+    public GroupDto group;
+    public long version;
+    public List<UserDto> members;
+    public List<ExpenseRowDto> expenses;   // first page of active expenses, oldest first
+    public Long nextAfter;                 // pass as ?after= to /expenses for the rest; null when complete
+    public List<DebtDto> debts;
+
+    public GroupSummaryDto(GroupDto group, long version, List<UserDto> members, List<ExpenseRowDto> expenses, Long nextAfter, List<DebtDto> debts) {
+        this.group = group;
+        this.version = version;
+        this.members = members;
+        this.expenses = expenses;
+        this.nextAfter = nextAfter;
+        this.debts = debts;
+    }
+}
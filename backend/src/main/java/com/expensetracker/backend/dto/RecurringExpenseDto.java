@@ -0,0 +1,39 @@
+package com.expensetracker.backend.dto;
+
+import com.expensetracker.backend.entity.RecurringExpenseEntity;
+import com.expensetracker.backend.util.Money;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class RecurringExpenseDto {
+    public Long id;
+    public Long groupId;
+    public Long paidByUserId;
+    public long amountCents;
+    public Double amount;
+    public String description;
+    public String splitType;
+    public String cron;
+    public String timeZone;
+    public Instant nextRunAt;
+
+    // userId -> amountOwed, CUSTOM templates only
+    public Map<Long, Double> splits;
+
+    public RecurringExpenseDto(RecurringExpenseEntity t) {
+        this.id = t.id;
+        this.groupId = t.groupId;
+        this.paidByUserId = t.paidByUserId;
+        this.amountCents = t.amountCents;
+        this.amount = Money.toAmount(t.amountCents);
+        this.description = t.description;
+        this.splitType = t.splitType;
+        this.cron = t.cron;
+        this.timeZone = t.timeZone;
+        this.nextRunAt = t.nextRunAt;
+        this.splits = new LinkedHashMap<>();
+        t.splitCents.forEach((userId, cents) -> this.splits.put(userId, Money.toAmount(cents)));
+    }
+}
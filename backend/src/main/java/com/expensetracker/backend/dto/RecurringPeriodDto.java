@@ -0,0 +1,14 @@
+package com.expensetracker.backend.dto;
+
+import java.time.Instant;
+
+// A period of a recurring template that already has its expense
+public class RecurringPeriodDto {
+    public Long recurringId;
+    public Instant period;
+
+    public RecurringPeriodDto(Long recurringId, Instant period) {
+        this.recurringId = recurringId;
+        this.period = period;
+    }
+}
@@ -0,0 +1,23 @@
+package com.expensetracker.backend.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// One expense's (or split's) contribution to a member's daily spending, before it is bucketed by day
+public class SpendRowDto {
+    public long groupId;
+    public Instant createdAt;
+    public LocalDate incurredOn;
+    public long userId;
+    public long paidCents;
+    public long shareCents;
+
+    public SpendRowDto(Long groupId, Instant createdAt, LocalDate incurredOn, Long userId, Long paidCents, Long shareCents) {
+        this.groupId = groupId;
+        this.createdAt = createdAt;
+        this.incurredOn = incurredOn;
+        this.userId = userId;
+        this.paidCents = paidCents;
+        this.shareCents = shareCents;
+    }
+}
@@ -0,0 +1,50 @@
+package com.expensetracker.backend.dto;
+
+import com.expensetracker.backend.util.Money;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Spending of a group per bucket (day, ISO week starting Monday, or month) and per member
+public class SpendingAnalyticsDto {
+    public long groupId;
+    public String bucket;
+    public long totalCents;
+    public double total;
+    public List<MemberSpendDto> members = new ArrayList<>(); // over the whole range
+    public List<BucketDto> buckets = new ArrayList<>();
+
+    public SpendingAnalyticsDto(long groupId, String bucket) {
+        this.groupId = groupId;
+        this.bucket = bucket;
+    }
+
+    public static class BucketDto {
+        public LocalDate start;
+        public long totalCents;
+        public double total;
+        public List<MemberSpendDto> members = new ArrayList<>();
+
+        public BucketDto(LocalDate start) {
+            this.start = start;
+        }
+    }
+
+    // paid: what the member laid out; share: their part of the splits
+    public static class MemberSpendDto {
+        public long userId;
+        public long paidCents;
+        public double paid;
+        public long shareCents;
+        public double share;
+
+        public MemberSpendDto(long userId, long paidCents, long shareCents) {
+            this.userId = userId;
+            this.paidCents = paidCents;
+            this.paid = Money.toAmount(paidCents);
+            this.shareCents = shareCents;
+            this.share = Money.toAmount(shareCents);
+        }
+    }
+}
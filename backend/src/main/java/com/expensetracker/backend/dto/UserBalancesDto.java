@@ -0,0 +1,48 @@
+package com.expensetracker.backend.dto;
+
+import com.expensetracker.backend.util.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A user's position over all groups; positive amounts are owed to the user, negative ones by them
+public class UserBalancesDto {
+    public long userId;
+    public long netCents;
+    public double net;
+    public List<CounterpartyBalanceDto> counterparties = new ArrayList<>();
+    public List<GroupNetDto> groups = new ArrayList<>();
+
+    public UserBalancesDto(long userId) {
+        this.userId = userId;
+    }
+
+    public static class CounterpartyBalanceDto {
+        public long userId;
+        public long netCents;
+        public double net;
+        public List<GroupNetDto> groups = new ArrayList<>();
+
+        public CounterpartyBalanceDto(long userId) {
+            this.userId = userId;
+        }
+
+        public void add(long groupId, long cents) {
+            groups.add(new GroupNetDto(groupId, cents));
+            netCents += cents;
+            net = Money.toAmount(netCents);
+        }
+    }
+
+    public static class GroupNetDto {
+        public long groupId;
+        public long netCents;
+        public double net;
+
+        public GroupNetDto(long groupId, long netCents) {
+            this.groupId = groupId;
+            this.netCents = netCents;
+            this.net = Money.toAmount(netCents);
+        }
+    }
+}
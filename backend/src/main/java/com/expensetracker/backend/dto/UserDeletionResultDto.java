@@ -0,0 +1,15 @@
+package com.expensetracker.backend.dto;
+
+import java.util.List;
+
+public class UserDeletionResultDto {
+    public List<Long> deleted;
+    public List<Long> blocked;   // still part of active (unsettled) expenses
+    public List<Long> notFound;
+
+    public UserDeletionResultDto(List<Long> deleted, List<Long> blocked, List<Long> notFound) {
+        this.deleted = deleted;
+        this.blocked = blocked;
+        this.notFound = notFound;
+    }
+}
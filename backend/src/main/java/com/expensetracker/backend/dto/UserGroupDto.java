@@ -0,0 +1,13 @@
+package com.expensetracker.backend.dto;
+
+public class UserGroupDto {
+    public long id;
+    public String name;
+    public long memberCount;
+
+    public UserGroupDto(long id, String name, long memberCount) {
+        this.id = id;
+        this.name = name;
+        this.memberCount = memberCount;
+    }
+}
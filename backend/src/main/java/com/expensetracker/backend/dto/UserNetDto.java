@@ -0,0 +1,11 @@
+package com.expensetracker.backend.dto;
+
+public class UserNetDto {
+    public long userId;
+    public long netCents;
+
+    public UserNetDto(Long userId, Long netCents) {
+        this.userId = userId;
+        this.netCents = netCents != null ? netCents : 0L;
+    }
+}
@@ -0,0 +1,20 @@
+package com.expensetracker.backend.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * A group with archived batches waiting for the background purge: every batch up to throughBatch
+ * goes. Clearing history moves throughBatch up to the group's cleared watermark; deleting the group
+ * sets it to Long.MAX_VALUE. The purge removes the row once nothing up to it is left.
+ */
+@Entity
+@Table(name = "archive_purges")
+public class ArchivePurgeEntity {
+
+    @Id
+    @Column(name = "group_id")
+    public Long groupId;
+
+    @Column(name = "through_batch", nullable = false)
+    public Long throughBatch;
+}
@@ -0,0 +1,43 @@
+package com.expensetracker.backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// A settled expense, moved out of the active table by the group's settle-up number `batch`
+@Entity
+@Table(name = "expense_archive")
+public class ArchivedExpenseEntity {
+
+    @Id
+    public Long id;
+
+    @Column(name = "group_id", nullable = false)
+    public Long groupId;
+
+    @Column(name = "paid_by_user_id")
+    public Long paidByUserId;
+
+    @Column(name = "amount_cents")
+    public Long amountCents;
+    public String description;
+
+    @Column(name = "created_at", nullable = false)
+    public Instant createdAt;
+
+    @Column(name = "incurred_on")
+    public LocalDate incurredOn;
+
+    @Column(name = "settlement", nullable = false)
+    public boolean settlement;
+
+    @Column(name = "recurring_id")
+    public Long recurringId;
+
+    @Column(name = "recurring_period")
+    public Instant recurringPeriod;
+
+    @Column(name = "batch", nullable = false)
+    public Long batch;
+}
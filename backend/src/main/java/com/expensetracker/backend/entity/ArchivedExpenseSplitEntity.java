@@ -0,0 +1,27 @@
+package com.expensetracker.backend.entity;
+
+import jakarta.persistence.*;
+
+// A split of an archived expense; written and purged by set-based statements in ExpenseArchiveRepository
+@Entity
+@Table(name = "expense_split_archive")
+public class ArchivedExpenseSplitEntity {
+
+    @Id
+    public Long id;
+
+    @Column(name = "expense_id", nullable = false)
+    public Long expenseId;
+
+    @Column(name = "group_id", nullable = false)
+    public Long groupId;
+
+    @Column(name = "user_id")
+    public Long userId;
+
+    @Column(name = "amount_owed_cents")
+    public Long amountOwedCents;
+
+    @Column(name = "batch", nullable = false)
+    public Long batch;
+}
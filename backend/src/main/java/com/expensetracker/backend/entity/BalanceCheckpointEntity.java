@@ -0,0 +1,34 @@
+package com.expensetracker.backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A group's net positions after every balance event up to eventId, whose latest occurredAt is asOf.
+ * Positions live in balance_checkpoint_positions. A baseline checkpoint stands in for history that
+ * was never logged, so nothing before its asOf can be answered.
+ */
+@Entity
+@Table(
+        name = "balance_checkpoints",
+        indexes = @Index(name = "idx_balance_checkpoints_group_as_of", columnList = "group_id, as_of")
+)
+public class BalanceCheckpointEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    @Column(name = "group_id", nullable = false)
+    public Long groupId;
+
+    @Column(name = "event_id", nullable = false)
+    public Long eventId;
+
+    @Column(name = "as_of", nullable = false)
+    public Instant asOf;
+
+    @Column(name = "baseline", nullable = false)
+    public boolean baseline;
+}
@@ -0,0 +1,25 @@
+package com.expensetracker.backend.entity;
+
+import jakarta.persistence.*;
+
+// Non-zero net position of one member at a checkpoint; written by set-based inserts
+@Entity
+@Table(
+        name = "balance_checkpoint_positions",
+        indexes = @Index(name = "idx_balance_checkpoint_positions_checkpoint", columnList = "checkpoint_id")
+)
+public class BalanceCheckpointPositionEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    @Column(name = "checkpoint_id", nullable = false)
+    public Long checkpointId;
+
+    @Column(name = "user_id", nullable = false)
+    public Long userId;
+
+    @Column(name = "net_cents", nullable = false)
+    public Long netCents;
+}
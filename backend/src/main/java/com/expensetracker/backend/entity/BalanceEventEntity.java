@@ -0,0 +1,44 @@
+package com.expensetracker.backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// One member's balance change from one write to a group; the log is append-only
+@Entity
+@Table(
+        name = "balance_events",
+        indexes = @Index(name = "idx_balance_events_group_id", columnList = "group_id, id")
+)
+public class BalanceEventEntity {
+
+    public static final String EXPENSE_CREATED = "EXPENSE_CREATED";
+    public static final String EXPENSE_DELETED = "EXPENSE_DELETED";
+    public static final String SETTLED = "SETTLED";
+    public static final String IMPORTED = "IMPORTED";
+    public static final String CORRECTED = "CORRECTED";
+    public static final String RECURRING = "RECURRING";
+
+    // Assigned by the database on insert, so ids follow insert order across application instances
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    @Column(name = "group_id", nullable = false)
+    public Long groupId;
+
+    @Column(name = "occurred_at", nullable = false)
+    public Instant occurredAt;
+
+    @Column(name = "kind", nullable = false, length = 32)
+    public String kind;
+
+    @Column(name = "expense_id")
+    public Long expenseId;
+
+    @Column(name = "user_id", nullable = false)
+    public Long userId;
+
+    @Column(name = "delta_cents", nullable = false)
+    public Long deltaCents;
+}
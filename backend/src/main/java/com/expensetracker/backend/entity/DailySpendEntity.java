@@ -0,0 +1,35 @@
+package com.expensetracker.backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+// One member's spending in a group on one day: what they paid and their share of the splits
+@Entity
+@Table(
+        name = "daily_spend",
+        uniqueConstraints = @UniqueConstraint(name = "uk_daily_spend_group_day_user", columnNames = {"group_id", "spent_on", "user_id"}),
+        indexes = @Index(name = "idx_daily_spend_user", columnList = "user_id")
+)
+public class DailySpendEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_spend_seq")
+    @SequenceGenerator(name = "daily_spend_seq", sequenceName = "daily_spend_id_seq", allocationSize = 50)
+    public Long id;
+
+    @Column(name = "group_id", nullable = false)
+    public Long groupId;
+
+    @Column(name = "spent_on", nullable = false)
+    public LocalDate spentOn;
+
+    @Column(name = "user_id", nullable = false)
+    public Long userId;
+
+    @Column(name = "paid_cents", nullable = false)
+    public Long paidCents = 0L;
+
+    @Column(name = "share_cents", nullable = false)
+    public Long shareCents = 0L;
+}
@@ -1,15 +1,27 @@
 package com.expensetracker.backend.entity;
 
 import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "expenses")
+@Table(
+        name = "expenses",
+        uniqueConstraints = @UniqueConstraint(name = "uk_expenses_recurring_period", columnNames = {"recurring_id", "recurring_period"}),
+        indexes = {
+                @Index(name = "idx_expenses_group_archived_id", columnList = "group_id, archived, id"),
+                @Index(name = "idx_expenses_paid_by", columnList = "paid_by_user_id")
+        }
+)
 public class ExpenseEntity {
 
+    // Pooled sequence ids let Hibernate batch inserts, which IDENTITY rules out
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expenses_seq")
+    @SequenceGenerator(name = "expenses_seq", sequenceName = "expenses_id_seq", allocationSize = 50)
     public Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -20,13 +32,38 @@ public class ExpenseEntity {
     @JoinColumn(name = "paid_by_user_id")
     public UserEntity paidBy;
 
-    public Double amount;
+    @Column(name = "amount_cents")
+    public Long amountCents;
     public String description;
 
-    // Mark cleared/old transactions without deleting them
+    // Settled expenses now move to expense_archive, so rows in this table stay unarchived
     @Column(name = "archived")
     public Boolean archived = false;
 
+    @Column(name = "created_at", nullable = false, updatable = false)
+    public Instant createdAt;
+
+    // Day the money was spent when the client gave one; otherwise the UTC day of createdAt counts
+    @Column(name = "incurred_on")
+    public LocalDate incurredOn;
+
+    // Transfers recorded by settle-up; they move balances but are not spending
+    @Column(name = "settlement", nullable = false)
+    public boolean settlement;
+
+    // Template and period of an expense posted by the recurring scheduler
+    @Column(name = "recurring_id")
+    public Long recurringId;
+
+    @Column(name = "recurring_period")
+    public Instant recurringPeriod;
+
     @OneToMany(mappedBy = "expense", cascade = CascadeType.ALL, orphanRemoval = true)
     public List<ExpenseSplitEntity> splits = new ArrayList<>();
+
+    // Set at persist() rather than at flush, so write paths can bucket the expense by day right away
+    @PrePersist
+    void stampCreatedAt() {
+        if (createdAt == null) createdAt = Instant.now();
+    }
 }
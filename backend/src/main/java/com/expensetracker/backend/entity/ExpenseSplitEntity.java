@@ -3,11 +3,15 @@ package com.expensetracker.backend.entity;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "expense_splits")
+@Table(
+        name = "expense_splits",
+        indexes = @Index(name = "idx_expense_splits_user", columnList = "user_id")
+)
 public class ExpenseSplitEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_splits_seq")
+    @SequenceGenerator(name = "expense_splits_seq", sequenceName = "expense_splits_id_seq", allocationSize = 50)
     public Long id;
 
     @ManyToOne(optional = false)
@@ -19,5 +23,6 @@ public class ExpenseSplitEntity {
     public UserEntity user;
 
     // Use wrapper to allow null checks and avoid primitive null comparison errors
-    public Double amountOwed;
+    @Column(name = "amount_owed_cents")
+    public Long amountOwedCents;
 }
@@ -0,0 +1,26 @@
+package com.expensetracker.backend.entity;
+
+import jakarta.persistence.*;
+
+// Running net position (paid minus owed, in cents) of one member over a group's active expenses
+@Entity
+@Table(
+        name = "group_balances",
+        uniqueConstraints = @UniqueConstraint(name = "uk_group_balances_group_user", columnNames = {"group_id", "user_id"})
+)
+public class GroupBalanceEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "group_balances_seq")
+    @SequenceGenerator(name = "group_balances_seq", sequenceName = "group_balances_id_seq", allocationSize = 50)
+    public Long id;
+
+    @Column(name = "group_id", nullable = false)
+    public Long groupId;
+
+    @Column(name = "user_id", nullable = false)
+    public Long userId;
+
+    @Column(name = "net_cents")
+    public Long netCents = 0L;
+}
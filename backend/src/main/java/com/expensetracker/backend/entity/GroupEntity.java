@@ -14,11 +14,32 @@ public class GroupEntity {
 
     public String name;
 
+    // Members whose ledger balance is non-zero; null until the ledger has been rebuilt once
+    @Column(name = "open_balances")
+    public Integer openBalances = 0;
+
+    // Incremented by every write to the group or its expenses; exposed as the ETag of group reads
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    public Long version;
+
+    // Settle-ups that moved expenses to the archive, and how many of those clear-old has hidden
+    @Column(name = "archive_batches", nullable = false)
+    public Long archiveBatches = 0L;
+
+    @Column(name = "cleared_batches", nullable = false)
+    public Long clearedBatches = 0L;
+
+    // Balance event rows not yet folded into a checkpoint; only changed by set-based updates
+    @Column(name = "pending_events", nullable = false, updatable = false)
+    public Integer pendingEvents = 0;
+
     @ManyToMany
     @JoinTable(
             name = "group_members",
             joinColumns = @JoinColumn(name = "group_id"),
-            inverseJoinColumns = @JoinColumn(name = "user_id")
+            inverseJoinColumns = @JoinColumn(name = "user_id"),
+            indexes = @Index(name = "idx_group_members_user", columnList = "user_id")
     )
     public Set<UserEntity> members = new HashSet<>();
 }
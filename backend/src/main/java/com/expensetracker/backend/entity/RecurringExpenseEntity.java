@@ -0,0 +1,59 @@
+package com.expensetracker.backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// An expense re-posted on a cron schedule; nextRunAt is the earliest period not posted yet
+@Entity
+@Table(
+        name = "recurring_expenses",
+        indexes = {
+                @Index(name = "idx_recurring_expenses_next_run", columnList = "next_run_at, group_id"),
+                @Index(name = "idx_recurring_expenses_group", columnList = "group_id")
+        }
+)
+public class RecurringExpenseEntity {
+
+    public static final String EQUAL = "EQUAL";
+    public static final String CUSTOM = "CUSTOM";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    @Column(name = "group_id", nullable = false)
+    public Long groupId;
+
+    @Column(name = "paid_by_user_id", nullable = false)
+    public Long paidByUserId;
+
+    @Column(name = "amount_cents", nullable = false)
+    public Long amountCents;
+
+    @Column(nullable = false)
+    public String description;
+
+    // EQUAL splits between whoever is a member when a period is posted; CUSTOM uses splitCents
+    @Column(name = "split_type", nullable = false, length = 16)
+    public String splitType;
+
+    // Spring CronExpression syntax, e.g. "0 0 9 1 * *" or "@monthly", evaluated in timeZone
+    @Column(nullable = false, length = 120)
+    public String cron;
+
+    @Column(name = "time_zone", nullable = false, length = 64)
+    public String timeZone;
+
+    @Column(name = "next_run_at", nullable = false)
+    public Instant nextRunAt;
+
+    // userId -> cents owed
+    @ElementCollection
+    @CollectionTable(name = "recurring_expense_splits", joinColumns = @JoinColumn(name = "template_id"))
+    @MapKeyColumn(name = "user_id")
+    @Column(name = "amount_cents", nullable = false)
+    public Map<Long, Long> splitCents = new LinkedHashMap<>();
+}
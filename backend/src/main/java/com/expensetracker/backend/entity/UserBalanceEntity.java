@@ -0,0 +1,31 @@
+package com.expensetracker.backend.entity;
+
+import jakarta.persistence.*;
+
+// What counterpartyId owes userId (negative: what userId owes them) over one group's active expenses.
+// Every pair is stored from both sides, so a user's position across all groups is one read on user_id.
+@Entity
+@Table(
+        name = "user_balances",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_balances_user_counterparty_group", columnNames = {"user_id", "counterparty_id", "group_id"}),
+        indexes = @Index(name = "idx_user_balances_group", columnList = "group_id")
+)
+public class UserBalanceEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_balances_seq")
+    @SequenceGenerator(name = "user_balances_seq", sequenceName = "user_balances_id_seq", allocationSize = 50)
+    public Long id;
+
+    @Column(name = "user_id", nullable = false)
+    public Long userId;
+
+    @Column(name = "counterparty_id", nullable = false)
+    public Long counterpartyId;
+
+    @Column(name = "group_id", nullable = false)
+    public Long groupId;
+
+    @Column(name = "net_cents", nullable = false)
+    public Long netCents = 0L;
+}
@@ -0,0 +1,20 @@
+package com.expensetracker.backend.repo;
+
+import com.expensetracker.backend.entity.ArchivePurgeEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ArchivePurgeRepository extends JpaRepository<ArchivePurgeEntity, Long> {
+
+    List<ArchivePurgeEntity> findByGroupIdGreaterThanOrderByGroupId(long after, Pageable page);
+
+    // 0 when a clear-old moved the watermark up meanwhile; the row then stays for the next run
+    @Modifying
+    @Query("delete from ArchivePurgeEntity p where p.groupId = :groupId and p.throughBatch = :throughBatch")
+    int deleteIfUnchanged(@Param("groupId") long groupId, @Param("throughBatch") long throughBatch);
+}
@@ -0,0 +1,52 @@
+package com.expensetracker.backend.repo;
+
+import com.expensetracker.backend.dto.UserNetDto;
+import com.expensetracker.backend.entity.BalanceCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpointEntity, Long> {
+
+    Optional<BalanceCheckpointEntity> findFirstByGroupIdAndAsOfLessThanEqualOrderByAsOfDescEventIdDesc(long groupId, Instant asOf);
+
+    Optional<BalanceCheckpointEntity> findFirstByGroupIdAndAsOfGreaterThanOrderByAsOfAscEventIdAsc(long groupId, Instant asOf);
+
+    Optional<BalanceCheckpointEntity> findFirstByGroupIdOrderByEventIdDesc(long groupId);
+
+    boolean existsByGroupIdAndBaselineTrueAndAsOfGreaterThan(long groupId, Instant asOf);
+
+    @Query("select new com.expensetracker.backend.dto.UserNetDto(p.userId, p.netCents) " +
+            "from BalanceCheckpointPositionEntity p where p.checkpointId = :checkpointId")
+    List<UserNetDto> findPositions(@Param("checkpointId") long checkpointId);
+
+    // Positions of the previous checkpoint (none when previousId is -1) plus events in (fromEvent, toEvent]
+    @Modifying
+    @Query(value = "insert into balance_checkpoint_positions (checkpoint_id, user_id, net_cents) " +
+            "select :checkpointId, x.user_id, sum(x.net_cents) from (" +
+            "select p.user_id, p.net_cents from balance_checkpoint_positions p where p.checkpoint_id = :previousId " +
+            "union all select e.user_id, e.delta_cents from balance_events e " +
+            "where e.group_id = :groupId and e.id > :fromEvent and e.id <= :toEvent" +
+            ") x group by x.user_id having sum(x.net_cents) <> 0", nativeQuery = true)
+    int insertPositions(
+            @Param("checkpointId") long checkpointId,
+            @Param("previousId") long previousId,
+            @Param("groupId") long groupId,
+            @Param("fromEvent") long fromEvent,
+            @Param("toEvent") long toEvent
+    );
+
+    @Modifying
+    @Query("delete from BalanceCheckpointPositionEntity p " +
+            "where p.checkpointId in (select c.id from BalanceCheckpointEntity c where c.groupId = :groupId)")
+    int deletePositionsByGroupId(@Param("groupId") long groupId);
+
+    @Modifying
+    @Query("delete from BalanceCheckpointEntity c where c.groupId = :groupId")
+    int deleteByGroupId(@Param("groupId") long groupId);
+}
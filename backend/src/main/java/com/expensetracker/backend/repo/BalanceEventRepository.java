@@ -0,0 +1,37 @@
+package com.expensetracker.backend.repo;
+
+import com.expensetracker.backend.dto.UserNetDto;
+import com.expensetracker.backend.entity.BalanceEventEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface BalanceEventRepository extends JpaRepository<BalanceEventEntity, Long> {
+
+    // Replay between two checkpoints: a range on the (group_id, id) index of about one checkpoint interval
+    @Query("select new com.expensetracker.backend.dto.UserNetDto(e.userId, sum(e.deltaCents)) from BalanceEventEntity e " +
+            "where e.groupId = :groupId and e.id > :afterEvent and e.id <= :untilEvent and e.occurredAt <= :asOf group by e.userId")
+    List<UserNetDto> sumBetween(
+            @Param("groupId") long groupId,
+            @Param("afterEvent") long afterEvent,
+            @Param("untilEvent") long untilEvent,
+            @Param("asOf") Instant asOf
+    );
+
+    @Query("select max(e.id) from BalanceEventEntity e where e.groupId = :groupId")
+    Long findLastId(@Param("groupId") long groupId);
+
+    @Query("select count(e) from BalanceEventEntity e where e.groupId = :groupId and e.id > :fromEvent and e.id <= :toEvent")
+    long countBetween(@Param("groupId") long groupId, @Param("fromEvent") long fromEvent, @Param("toEvent") long toEvent);
+
+    @Query("select max(e.occurredAt) from BalanceEventEntity e where e.groupId = :groupId and e.id > :fromEvent and e.id <= :toEvent")
+    Instant findLatestBetween(@Param("groupId") long groupId, @Param("fromEvent") long fromEvent, @Param("toEvent") long toEvent);
+
+    @Modifying
+    @Query("delete from BalanceEventEntity e where e.groupId = :groupId")
+    int deleteByGroupId(@Param("groupId") long groupId);
+}
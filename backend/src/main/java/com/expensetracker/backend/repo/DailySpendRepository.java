@@ -0,0 +1,58 @@
+package com.expensetracker.backend.repo;
+
+import com.expensetracker.backend.entity.DailySpendEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface DailySpendRepository extends JpaRepository<DailySpendEntity, Long> {
+
+    // Day the expense counts on: incurred_on if given, else the UTC day it was recorded
+    String SPENT_ON = "coalesce(e.incurred_on, cast(e.created_at at time zone 'UTC' as date))";
+
+    // Range read on the (group_id, spent_on, user_id) unique index
+    @Query("select d from DailySpendEntity d where d.groupId = :groupId and d.spentOn between :from and :to order by d.spentOn, d.userId")
+    List<DailySpendEntity> findRange(@Param("groupId") long groupId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from DailySpendEntity d where d.groupId in :groupIds and d.spentOn in :days and d.userId in :userIds")
+    List<DailySpendEntity> findForUpdate(
+            @Param("groupIds") Collection<Long> groupIds,
+            @Param("days") Collection<LocalDate> days,
+            @Param("userIds") Collection<Long> userIds
+    );
+
+    @Modifying
+    @Query("delete from DailySpendEntity d where d.groupId = :groupId")
+    int deleteByGroupId(@Param("groupId") long groupId);
+
+    @Modifying
+    @Query("delete from DailySpendEntity d where d.userId in :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    // Recomputes a group's rows from its active and archived expenses (archived until purged)
+    @Modifying
+    @Query(value = "insert into daily_spend (id, group_id, spent_on, user_id, paid_cents, share_cents) " +
+            "select nextval('daily_spend_id_seq'), :groupId, x.spent_on, x.user_id, sum(x.paid), sum(x.share) from (" +
+            "select " + SPENT_ON + " as spent_on, e.paid_by_user_id as user_id, e.amount_cents as paid, 0 as share " +
+            "from expenses e where e.group_id = :groupId and e.settlement = false " +
+            "and e.paid_by_user_id is not null and e.amount_cents is not null " +
+            "union all select " + SPENT_ON + ", s.user_id, 0, s.amount_owed_cents " +
+            "from expense_splits s join expenses e on e.id = s.expense_id where e.group_id = :groupId and e.settlement = false " +
+            "and s.user_id is not null and s.amount_owed_cents is not null " +
+            "union all select " + SPENT_ON + ", e.paid_by_user_id, e.amount_cents, 0 " +
+            "from expense_archive e where e.group_id = :groupId and e.settlement = false " +
+            "and e.paid_by_user_id is not null and e.amount_cents is not null " +
+            "union all select " + SPENT_ON + ", s.user_id, 0, s.amount_owed_cents " +
+            "from expense_split_archive s join expense_archive e on e.id = s.expense_id where e.group_id = :groupId and e.settlement = false " +
+            "and s.user_id is not null and s.amount_owed_cents is not null" +
+            ") x group by x.spent_on, x.user_id", nativeQuery = true)
+    int insertRecomputed(@Param("groupId") long groupId);
+}
@@ -0,0 +1,87 @@
+package com.expensetracker.backend.repo;
+
+import com.expensetracker.backend.dto.ExpenseRowDto;
+import com.expensetracker.backend.dto.RecurringPeriodDto;
+import com.expensetracker.backend.dto.SpendRowDto;
+import com.expensetracker.backend.entity.ArchivedExpenseEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ExpenseArchiveRepository extends JpaRepository<ArchivedExpenseEntity, Long> {
+
+    // Keyset page over (group_id, id); batches hidden by clear-old are skipped until the purge removes them
+    @Query("select new com.expensetracker.backend.dto.ExpenseRowDto(a.id, a.groupId, a.paidByUserId, a.amountCents, a.description, a.createdAt, a.incurredOn) " +
+            "from ArchivedExpenseEntity a where a.groupId = :groupId and a.id > :after " +
+            "and a.batch > (select g.clearedBatches from GroupEntity g where g.id = :groupId) order by a.id")
+    List<ExpenseRowDto> findRows(@Param("groupId") long groupId, @Param("after") long after, Pageable page);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.expensetracker.backend.dto.ExpenseRowDto(a.id, a.groupId, a.paidByUserId, a.amountCents, a.description, a.createdAt, a.incurredOn) " +
+            "from ArchivedExpenseEntity a where a.groupId = :groupId " +
+            "and a.batch > (select g.clearedBatches from GroupEntity g where g.id = :groupId) order by a.id")
+    Stream<ExpenseRowDto> streamRows(@Param("groupId") long groupId);
+
+    // Settled counterpart of ExpenseRepository.findPostedPeriods; rows purged by clear-old are no longer seen
+    @Query("select new com.expensetracker.backend.dto.RecurringPeriodDto(a.recurringId, a.recurringPeriod) " +
+            "from ArchivedExpenseEntity a where a.recurringId in :templateIds and a.recurringPeriod >= :from")
+    List<RecurringPeriodDto> findPostedPeriods(@Param("templateIds") Collection<Long> templateIds, @Param("from") Instant from);
+
+    // Copies the group's active splits, then expenses, under the batch number just taken by the settle-up
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into expense_split_archive (id, expense_id, group_id, user_id, amount_owed_cents, batch) " +
+            "select s.id, s.expense_id, e.group_id, s.user_id, s.amount_owed_cents, g.archive_batches " +
+            "from expense_splits s join expenses e on e.id = s.expense_id join groups g on g.id = e.group_id " +
+            "where e.group_id = :groupId and e.archived = false", nativeQuery = true)
+    int copyActiveSplits(@Param("groupId") long groupId);
+
+    @Modifying
+    @Query(value = "insert into expense_archive (id, group_id, paid_by_user_id, amount_cents, description, created_at, incurred_on, settlement, recurring_id, recurring_period, batch) " +
+            "select e.id, e.group_id, e.paid_by_user_id, e.amount_cents, e.description, e.created_at, e.incurred_on, e.settlement, e.recurring_id, e.recurring_period, g.archive_batches " +
+            "from expenses e join groups g on g.id = e.group_id " +
+            "where e.group_id = :groupId and e.archived = false", nativeQuery = true)
+    int copyActiveExpenses(@Param("groupId") long groupId);
+
+    // Background purge of one group's batches up to a watermark, a bounded chunk at a time via (group_id, batch)
+
+    @Query(value = "select id from expense_split_archive where group_id = :groupId and batch <= :throughBatch limit :limit", nativeQuery = true)
+    List<Long> findPurgeableSplitIds(@Param("groupId") long groupId, @Param("throughBatch") long throughBatch, @Param("limit") int limit);
+
+    @Query(value = "select id from expense_archive where group_id = :groupId and batch <= :throughBatch limit :limit", nativeQuery = true)
+    List<Long> findPurgeableExpenseIds(@Param("groupId") long groupId, @Param("throughBatch") long throughBatch, @Param("limit") int limit);
+
+    // Spending rows about to be purged, for groups that still exist
+    @Query("select new com.expensetracker.backend.dto.SpendRowDto(a.groupId, a.createdAt, a.incurredOn, s.userId, 0L, s.amountOwedCents) " +
+            "from ArchivedExpenseSplitEntity s join ArchivedExpenseEntity a on a.id = s.expenseId join GroupEntity g on g.id = a.groupId " +
+            "where s.id in :ids and a.settlement = false and s.userId is not null and s.amountOwedCents is not null")
+    List<SpendRowDto> findSplitSpend(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.expensetracker.backend.dto.SpendRowDto(a.groupId, a.createdAt, a.incurredOn, a.paidByUserId, a.amountCents, 0L) " +
+            "from ArchivedExpenseEntity a join GroupEntity g on g.id = a.groupId " +
+            "where a.id in :ids and a.settlement = false and a.paidByUserId is not null and a.amountCents is not null")
+    List<SpendRowDto> findPaidSpend(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from ArchivedExpenseSplitEntity s where s.id in :ids")
+    int deleteSplitsByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from ArchivedExpenseEntity a where a.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "delete from expense_split_archive where user_id in (:userIds)", nativeQuery = true)
+    int deleteSplitsByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("update ArchivedExpenseEntity a set a.paidByUserId = null where a.paidByUserId in :userIds")
+    int detachPayers(@Param("userIds") Collection<Long> userIds);
+}
@@ -1,13 +1,55 @@
 package com.expensetracker.backend.repo;
 
+import com.expensetracker.backend.dto.ExpenseRowDto;
+import com.expensetracker.backend.dto.RecurringPeriodDto;
 import com.expensetracker.backend.entity.ExpenseEntity;
-import org.springframework.data.jpa.repository.EntityGraph;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ExpenseRepository extends JpaRepository<ExpenseEntity, Long> {
     @EntityGraph(attributePaths = {"paidBy", "group", "splits", "splits.user"})
     List<ExpenseEntity> findByGroup_IdAndArchivedFalse(long groupId);
     @EntityGraph(attributePaths = {"paidBy", "group", "splits", "splits.user"})
-    List<ExpenseEntity> findByGroup_IdAndArchivedTrue(long groupId);
+    Optional<ExpenseEntity> findWithDetailsById(long id);
+
+    // Keyset page over the (group_id, archived, id) index: rows with id > after, in id order
+    @Query("select new com.expensetracker.backend.dto.ExpenseRowDto(e.id, e.group.id, e.paidBy.id, e.amountCents, e.description, e.createdAt, e.incurredOn) " +
+            "from ExpenseEntity e where e.group.id = :groupId and e.archived = :archived and e.id > :after order by e.id")
+    List<ExpenseRowDto> findRows(
+            @Param("groupId") long groupId,
+            @Param("archived") boolean archived,
+            @Param("after") long after,
+            Pageable page
+    );
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.expensetracker.backend.dto.ExpenseRowDto(e.id, e.group.id, e.paidBy.id, e.amountCents, e.description, e.createdAt, e.incurredOn) " +
+            "from ExpenseEntity e where e.group.id = :groupId and e.archived = :archived order by e.id")
+    Stream<ExpenseRowDto> streamRows(@Param("groupId") long groupId, @Param("archived") boolean archived);
+
+    // Normally empty: periods at or after a template's next run were posted only if next_run_at was moved back
+    @Query("select new com.expensetracker.backend.dto.RecurringPeriodDto(e.recurringId, e.recurringPeriod) " +
+            "from ExpenseEntity e where e.recurringId in :templateIds and e.recurringPeriod >= :from")
+    List<RecurringPeriodDto> findPostedPeriods(@Param("templateIds") Collection<Long> templateIds, @Param("from") Instant from);
+
+    @Query("select distinct e.paidBy.id from ExpenseEntity e where e.archived = false and e.paidBy.id in :userIds")
+    List<Long> findActivePayerIds(@Param("userIds") Collection<Long> userIds);
+
+    // Archived history keeps its amounts but no longer names a deleted payer
+    @Modifying
+    @Query("update ExpenseEntity e set e.paidBy = null where e.paidBy.id in :userIds")
+    int detachPayers(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("delete from ExpenseEntity e where e.group.id = :groupId and e.archived = false")
+    int deleteActive(@Param("groupId") long groupId);
 }
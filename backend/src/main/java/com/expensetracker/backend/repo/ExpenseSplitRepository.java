@@ -3,10 +3,26 @@ package com.expensetracker.backend.repo;
 
 import com.expensetracker.backend.entity.ExpenseSplitEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ExpenseSplitRepository extends JpaRepository<ExpenseSplitEntity, Long> {
 
     List<ExpenseSplitEntity> findByExpenseGroupId(Long groupId);
+
+    @Query("select distinct s.user.id from ExpenseSplitEntity s where s.expense.archived = false and s.user.id in :userIds")
+    List<Long> findActiveParticipantIds(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query(value = "delete from expense_splits where expense_id in " +
+            "(select id from expenses where group_id = :groupId and archived = false)", nativeQuery = true)
+    int deleteActiveOfGroup(@Param("groupId") long groupId);
+
+    @Modifying
+    @Query("delete from ExpenseSplitEntity s where s.user.id in :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
 }
@@ -0,0 +1,37 @@
+package com.expensetracker.backend.repo;
+
+import com.expensetracker.backend.entity.GroupBalanceEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface GroupBalanceRepository extends JpaRepository<GroupBalanceEntity, Long> {
+
+    List<GroupBalanceEntity> findByGroupId(long groupId);
+
+    // Rows of these users in any of these groups; writers touching several groups pick out their own pairs
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from GroupBalanceEntity b where b.groupId in :groupIds and b.userId in :userIds")
+    List<GroupBalanceEntity> findForUpdate(@Param("groupIds") Collection<Long> groupIds, @Param("userIds") Collection<Long> userIds);
+
+    @Query("select count(b) from GroupBalanceEntity b where b.groupId = :groupId and b.netCents <> 0")
+    long countOpen(@Param("groupId") long groupId);
+
+    @Modifying
+    @Query("update GroupBalanceEntity b set b.netCents = 0 where b.groupId = :groupId")
+    int resetByGroupId(@Param("groupId") long groupId);
+
+    @Modifying
+    @Query("delete from GroupBalanceEntity b where b.userId in :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("delete from GroupBalanceEntity b where b.groupId = :groupId")
+    int deleteByGroupId(@Param("groupId") long groupId);
+}
@@ -1,7 +1,133 @@
 package com.expensetracker.backend.repo;
 
+import com.expensetracker.backend.dto.GroupMemberRowDto;
+import com.expensetracker.backend.dto.UserGroupDto;
 import com.expensetracker.backend.entity.GroupEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface GroupRepository extends JpaRepository<GroupEntity, Long> {
+
+    // Reads the join table only; no UserEntity is hydrated
+    @Query("select m.id from GroupEntity g join g.members m where g.id = :groupId order by m.id")
+    List<Long> findMemberIds(@Param("groupId") long groupId);
+
+    // Groups of one user via idx_group_members_user; member counts come from the (group_id, user_id) key
+    @Query("select new com.expensetracker.backend.dto.UserGroupDto(g.id, g.name, size(g.members)) " +
+            "from GroupEntity g join g.members m where m.id = :userId order by g.id")
+    List<UserGroupDto> findGroupsOfMember(@Param("userId") long userId);
+
+    @Query(value = "select distinct group_id from group_members where user_id in (:userIds)", nativeQuery = true)
+    List<Long> findGroupIdsByMemberIds(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query(value = "delete from group_members where user_id in (:userIds)", nativeQuery = true)
+    int removeMemberships(@Param("userIds") Collection<Long> userIds);
+
+    // Listing queries return one row per (group, member) so GET /groups needs no per-group lookups
+
+    @Query("select new com.expensetracker.backend.dto.GroupMemberRowDto(g.id, g.name, m.id) " +
+            "from GroupEntity g left join g.members m order by g.id, m.id")
+    List<GroupMemberRowDto> findAllMemberRows();
+
+    @Query("select new com.expensetracker.backend.dto.GroupMemberRowDto(g.id, g.name, m.id) " +
+            "from GroupEntity g left join g.members m " +
+            "where g.id in (select g2.id from GroupEntity g2 join g2.members m2 where m2.id = :memberId) " +
+            "order by g.id, m.id")
+    List<GroupMemberRowDto> findMemberRowsForMember(@Param("memberId") long memberId);
+
+    @Query("select new com.expensetracker.backend.dto.GroupMemberRowDto(g.id, g.name, m.id) " +
+            "from GroupEntity g left join g.members m where g.id in :groupIds order by g.id, m.id")
+    List<GroupMemberRowDto> findMemberRowsByGroupIds(@Param("groupIds") List<Long> groupIds);
+
+    @Query("select g.id from GroupEntity g where g.id > :after order by g.id")
+    List<Long> findIdsAfter(@Param("after") long after, Pageable page);
+
+    // Served by idx_group_members_user
+    @Query("select g.id from GroupEntity g join g.members m where m.id = :memberId and g.id > :after order by g.id")
+    List<Long> findIdsForMemberAfter(@Param("memberId") long memberId, @Param("after") long after, Pageable page);
+
+    // Row lock without a version bump, for maintenance that must not interleave with writers
+    @Query(value = "select id from groups where id = :groupId for update", nativeQuery = true)
+    Optional<Long> lockById(@Param("groupId") long groupId);
+
+    // The same for many groups, taken in id order so two such callers cannot deadlock
+    @Query(value = "select id from groups where id in (:groupIds) order by id for update", nativeQuery = true)
+    List<Long> lockByIds(@Param("groupIds") Collection<Long> groupIds);
+
+    @Query("select coalesce(g.version, 0) from GroupEntity g where g.id = :groupId")
+    Optional<Long> findVersion(@Param("groupId") long groupId);
+
+    /**
+     * Loads a group for a write that changes it or its expenses and bumps its version.
+     * A conditional write (the client sent If-Match) is optimistic: the increment is applied at
+     * commit and fails it if another write got there first. Otherwise the version is incremented
+     * right away, which also row-locks the group so unconditional writers simply queue.
+     */
+    default Optional<GroupEntity> findForWrite(long groupId, boolean conditional) {
+        if (conditional) return findForOptimisticWrite(groupId);
+        return bumpVersions(List.of(groupId)) == 0 ? Optional.empty() : findById(groupId);
+    }
+
+    // The version a group loaded by findForWrite will have once the write commits
+    default long versionAfterWrite(GroupEntity group, boolean conditional) {
+        return conditional ? group.version + 1 : group.version;
+    }
+
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select g from GroupEntity g where g.id = :groupId")
+    Optional<GroupEntity> findForOptimisticWrite(@Param("groupId") long groupId);
+
+    // Row-locks in whatever order the plan visits the rows: callers passing several groups lockByIds them first
+    @Modifying
+    @Query("update GroupEntity g set g.version = g.version + 1 where g.id in :groupIds")
+    int bumpVersions(@Param("groupIds") Collection<Long> groupIds);
+
+    @Modifying
+    @Query("update GroupEntity g set g.archiveBatches = g.archiveBatches + 1 where g.id = :groupId")
+    int nextArchiveBatch(@Param("groupId") long groupId);
+
+    // 0 when every archived batch was already cleared
+    @Modifying
+    @Query("update GroupEntity g set g.clearedBatches = g.archiveBatches " +
+            "where g.id = :groupId and g.clearedBatches < g.archiveBatches")
+    int clearArchivedBatches(@Param("groupId") long groupId);
+
+    @Query("select g.clearedBatches from GroupEntity g where g.id = :groupId")
+    Long findClearedBatches(@Param("groupId") long groupId);
+
+    @Modifying
+    @Query("update GroupEntity g set g.pendingEvents = g.pendingEvents + :delta where g.id = :groupId")
+    int adjustPendingEvents(@Param("groupId") long groupId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("update GroupEntity g set g.pendingEvents = g.pendingEvents + :delta where g.id in :groupIds")
+    int adjustPendingEvents(@Param("groupIds") Collection<Long> groupIds, @Param("delta") int delta);
+
+    @Query("select g.id from GroupEntity g where g.pendingEvents >= :threshold and g.id > :after order by g.id")
+    List<Long> findIdsWithPendingEvents(@Param("threshold") int threshold, @Param("after") long after, Pageable page);
+
+    @Query("select g.openBalances from GroupEntity g where g.id = :groupId")
+    Integer findOpenBalances(@Param("groupId") long groupId);
+
+    @Modifying
+    @Query("update GroupEntity g set g.openBalances = g.openBalances + :delta where g.id = :groupId and g.openBalances is not null")
+    int adjustOpenBalances(@Param("groupId") long groupId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("update GroupEntity g set g.openBalances = g.openBalances + :delta where g.id in :groupIds and g.openBalances is not null")
+    int adjustOpenBalances(@Param("groupIds") Collection<Long> groupIds, @Param("delta") int delta);
+
+    @Modifying
+    @Query("update GroupEntity g set g.openBalances = :count where g.id = :groupId")
+    int setOpenBalances(@Param("groupId") long groupId, @Param("count") int count);
 }
@@ -0,0 +1,57 @@
+package com.expensetracker.backend.repo;
+
+import com.expensetracker.backend.entity.RecurringExpenseEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface RecurringExpenseRepository extends JpaRepository<RecurringExpenseEntity, Long> {
+
+    // Locks up to :limit due templates; rows another scheduler instance holds are skipped, not waited for.
+    // Group order keeps a group's templates together, so its balance rows are written once per chunk.
+    @Query(value = "select id from recurring_expenses where next_run_at <= :now " +
+            "order by next_run_at, group_id limit :limit for update skip locked", nativeQuery = true)
+    List<Long> claimDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    @EntityGraph(attributePaths = "splitCents")
+    List<RecurringExpenseEntity> findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "splitCents")
+    List<RecurringExpenseEntity> findByGroupIdOrderById(long groupId);
+
+    @EntityGraph(attributePaths = "splitCents")
+    Optional<RecurringExpenseEntity> findByIdAndGroupId(long id, long groupId);
+
+    @Modifying
+    @Query("update RecurringExpenseEntity t set t.nextRunAt = :next where t.id in :ids")
+    int advance(@Param("ids") Collection<Long> ids, @Param("next") Instant next);
+
+    @Modifying
+    @Query(value = "delete from recurring_expense_splits where template_id in " +
+            "(select id from recurring_expenses where group_id = :groupId)", nativeQuery = true)
+    int deleteSplitsByGroupId(@Param("groupId") long groupId);
+
+    @Modifying
+    @Query("delete from RecurringExpenseEntity t where t.groupId = :groupId")
+    int deleteByGroupId(@Param("groupId") long groupId);
+
+    // Templates a deleted user pays or has a custom share in can no longer be posted
+    @Query(value = "select id from recurring_expenses where paid_by_user_id in (:userIds) " +
+            "union select template_id from recurring_expense_splits where user_id in (:userIds)", nativeQuery = true)
+    List<Long> findIdsByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query(value = "delete from recurring_expense_splits where template_id in (:ids)", nativeQuery = true)
+    int deleteSplitsByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from RecurringExpenseEntity t where t.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,31 @@
+package com.expensetracker.backend.repo;
+
+import com.expensetracker.backend.entity.UserBalanceEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserBalanceRepository extends JpaRepository<UserBalanceEntity, Long> {
+
+    // Served by the (user_id, counterparty_id, group_id) unique index, already in output order
+    List<UserBalanceEntity> findByUserIdOrderByCounterpartyIdAscGroupIdAsc(long userId);
+
+    // Both sides of every pair among the given users in any of the given groups
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from UserBalanceEntity b where b.groupId in :groupIds " +
+            "and b.userId in :userIds and b.counterpartyId in :userIds")
+    List<UserBalanceEntity> findPairsForUpdate(
+            @Param("groupIds") Collection<Long> groupIds,
+            @Param("userIds") Collection<Long> userIds
+    );
+
+    @Modifying
+    @Query("delete from UserBalanceEntity b where b.groupId = :groupId")
+    int deleteByGroupId(@Param("groupId") long groupId);
+}
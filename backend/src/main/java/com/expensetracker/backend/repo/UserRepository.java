@@ -1,9 +1,45 @@
 package com.expensetracker.backend.repo;
 
+import com.expensetracker.backend.dto.UserDto;
 import com.expensetracker.backend.entity.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
-    List<UserEntity> findByNameContainingIgnoreCase(String name);
+    // Substring match served by the pg_trgm GIN indexes; exact and prefix hits rank first
+    @Query("select new com.expensetracker.backend.dto.UserDto(u.id, u.name, u.email) from UserEntity u " +
+            "where u.name ilike :pattern escape '!' or u.email ilike :pattern escape '!' " +
+            "order by case when lower(u.name) = :q or lower(u.email) = :q then 0 " +
+            "when lower(u.name) like :prefix escape '!' or lower(u.email) like :prefix escape '!' then 1 " +
+            "else 2 end, function('similarity', u.name, :q) desc, u.id " +
+            "limit :limit offset :offset")
+    List<UserDto> search(
+            @Param("q") String q,
+            @Param("pattern") String pattern,
+            @Param("prefix") String prefix,
+            @Param("limit") int limit,
+            @Param("offset") int offset
+    );
+
+    // Served by the unique index on lower(email)
+    @Query("select new com.expensetracker.backend.dto.UserDto(u.id, u.name, u.email) from UserEntity u " +
+            "where lower(u.email) = lower(:email)")
+    Optional<UserDto> findByEmail(@Param("email") String email);
+
+    @Query("select new com.expensetracker.backend.dto.UserDto(u.id, u.name, u.email) " +
+            "from GroupEntity g join g.members u where g.id = :groupId order by u.id")
+    List<UserDto> findMembersOf(@Param("groupId") long groupId);
+
+    @Query("select u.id from UserEntity u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from UserEntity u where u.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,158 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.UserNetDto;
+import com.expensetracker.backend.entity.BalanceCheckpointEntity;
+import com.expensetracker.backend.repo.BalanceCheckpointRepository;
+import com.expensetracker.backend.repo.BalanceEventRepository;
+import com.expensetracker.backend.repo.GroupRepository;
+import com.expensetracker.backend.util.LongLongMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only log of the balance deltas BalanceLedger applies, with periodic per-group checkpoints,
+ * so past balances can be answered without the (archived or purged) expense history.
+ * <p>
+ * Positions as of a time are the latest checkpoint at or before it plus the events logged after that
+ * checkpoint, which a background job keeps to about app.balances.checkpoint-interval rows per group.
+ * The job reads committed events only and touches the group row just to decrement its pending count,
+ * so writers never wait for a checkpoint to be computed.
+ */
+@Service
+public class BalanceHistory {
+
+    private static final int GROUP_PAGE = 500;
+    private static final String INSERT_EVENT = "insert into balance_events " +
+            "(group_id, occurred_at, kind, expense_id, user_id, delta_cents) values (?, ?, ?, ?, ?, ?)";
+
+    private final BalanceEventRepository eventRepo;
+    private final BalanceCheckpointRepository checkpointRepo;
+    private final GroupRepository groupRepo;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final int interval;
+
+    public BalanceHistory(
+            BalanceEventRepository eventRepo,
+            BalanceCheckpointRepository checkpointRepo,
+            GroupRepository groupRepo,
+            JdbcTemplate jdbc,
+            PlatformTransactionManager txManager,
+            @Value("${app.balances.checkpoint-interval:1000}") int interval
+    ) {
+        this.eventRepo = eventRepo;
+        this.checkpointRepo = checkpointRepo;
+        this.groupRepo = groupRepo;
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.interval = interval;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void log(long groupId, String kind, Long expenseId, LongLongMap deltas) {
+        log(kind, expenseId, Map.of(groupId, deltas));
+    }
+
+    // groupId -> deltas, for writes that span groups
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void log(String kind, Map<Long, LongLongMap> byGroup) {
+        log(kind, null, byGroup);
+    }
+
+    private void log(String kind, Long expenseId, Map<Long, LongLongMap> byGroup) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>();
+        // Groups that logged the same number of rows share one pending count update
+        Map<Integer, List<Long>> byCount = new HashMap<>();
+        byGroup.forEach((groupId, deltas) -> {
+            int n = 0;
+            for (int i = 0; i < deltas.size(); i++) {
+                if (deltas.valueAt(i) == 0) continue;
+                rows.add(new Object[]{groupId, now, kind, expenseId, deltas.keyAt(i), deltas.valueAt(i)});
+                n++;
+            }
+            if (n > 0) byCount.computeIfAbsent(n, k -> new ArrayList<>()).add(groupId);
+        });
+        if (rows.isEmpty()) return;
+        // Plain JDBC batch: ids stay database-assigned (in insert order) without a round trip per row
+        jdbc.batchUpdate(INSERT_EVENT, rows);
+        byCount.forEach((n, groupIds) -> groupRepo.adjustPendingEvents(groupIds, n));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void forget(long groupId) {
+        checkpointRepo.deletePositionsByGroupId(groupId);
+        checkpointRepo.deleteByGroupId(groupId);
+        eventRepo.deleteByGroupId(groupId);
+    }
+
+    // userId -> net cents as of the given time; history before a baseline checkpoint was never logged
+    @Transactional(readOnly = true)
+    public LongLongMap positionsAsOf(long groupId, Instant asOf) {
+        BalanceCheckpointEntity checkpoint = checkpointRepo
+                .findFirstByGroupIdAndAsOfLessThanEqualOrderByAsOfDescEventIdDesc(groupId, asOf)
+                .orElse(null);
+        if (checkpoint == null && checkpointRepo.existsByGroupIdAndBaselineTrueAndAsOfGreaterThan(groupId, asOf)) {
+            throw new IllegalArgumentException("No balance history for group " + groupId + " before " + asOf);
+        }
+        LongLongMap net = new LongLongMap();
+        long after = 0L;
+        if (checkpoint != null) {
+            for (UserNetDto p : checkpointRepo.findPositions(checkpoint.id)) net.add(p.userId, p.netCents);
+            after = checkpoint.eventId;
+        }
+        // Events of a group are logged one writer at a time, so everything past the next checkpoint is later than asOf
+        long until = checkpointRepo.findFirstByGroupIdAndAsOfGreaterThanOrderByAsOfAscEventIdAsc(groupId, asOf)
+                .map(next -> next.eventId)
+                .orElse(Long.MAX_VALUE);
+        for (UserNetDto d : eventRepo.sumBetween(groupId, after, until, asOf)) net.add(d.userId, d.netCents);
+        return net;
+    }
+
+    @Scheduled(fixedDelayString = "${app.balances.checkpoint-delay:PT1M}")
+    public void checkpointDue() {
+        List<Long> ids;
+        long after = 0L;
+        do {
+            ids = groupRepo.findIdsWithPendingEvents(interval, after, PageRequest.of(0, GROUP_PAGE));
+            for (Long groupId : ids) {
+                tx.executeWithoutResult(status -> checkpoint(groupId));
+                after = groupId;
+            }
+        } while (ids.size() == GROUP_PAGE);
+    }
+
+    // Folds the group's events since its last checkpoint into a new one; false when there were none
+    @Transactional
+    public boolean checkpoint(long groupId) {
+        BalanceCheckpointEntity previous = checkpointRepo.findFirstByGroupIdOrderByEventIdDesc(groupId).orElse(null);
+        long from = previous == null ? 0L : previous.eventId;
+        Long to = eventRepo.findLastId(groupId);
+        if (to == null || to <= from) return false;
+
+        BalanceCheckpointEntity c = new BalanceCheckpointEntity();
+        c.groupId = groupId;
+        c.eventId = to;
+        c.asOf = eventRepo.findLatestBetween(groupId, from, to);
+        // Kept monotonic in eventId, which the as-of lookup relies on
+        if (previous != null && previous.asOf.isAfter(c.asOf)) c.asOf = previous.asOf;
+        checkpointRepo.saveAndFlush(c);
+        checkpointRepo.insertPositions(c.id, previous == null ? -1L : previous.id, groupId, from, to);
+        groupRepo.adjustPendingEvents(groupId, -(int) eventRepo.countBetween(groupId, from, to));
+        return true;
+    }
+}
@@ -0,0 +1,233 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.entity.BalanceEventEntity;
+import com.expensetracker.backend.entity.ExpenseEntity;
+import com.expensetracker.backend.entity.ExpenseSplitEntity;
+import com.expensetracker.backend.entity.GroupBalanceEntity;
+import com.expensetracker.backend.repo.ExpenseRepository;
+import com.expensetracker.backend.repo.GroupBalanceRepository;
+import com.expensetracker.backend.repo.GroupRepository;
+import com.expensetracker.backend.util.EntityIds;
+import com.expensetracker.backend.util.LongLongMap;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Maintains the per-(group, user) net balance table. Every write path that changes the set of
+ * active expenses applies its delta here inside the same transaction, so reading balances costs
+ * one row per member instead of a scan over the group's expense history. The pairwise per-user
+ * rollup (UserBalanceRollup) and the balance event log (BalanceHistory) are updated alongside.
+ */
+@Service
+public class BalanceLedger {
+
+    private final GroupBalanceRepository balanceRepo;
+    private final ExpenseRepository expenseRepo;
+    private final GroupRepository groupRepo;
+    private final UserBalanceRollup rollup;
+    private final BalanceHistory history;
+
+    public BalanceLedger(
+            GroupBalanceRepository balanceRepo,
+            ExpenseRepository expenseRepo,
+            GroupRepository groupRepo,
+            UserBalanceRollup rollup,
+            BalanceHistory history
+    ) {
+        this.balanceRepo = balanceRepo;
+        this.expenseRepo = expenseRepo;
+        this.groupRepo = groupRepo;
+        this.rollup = rollup;
+        this.history = history;
+    }
+
+    // Both return the per-member deltas that were applied. Payer, split users and group may be lazy proxies
+    @Transactional(propagation = Propagation.MANDATORY)
+    public LongLongMap record(ExpenseEntity e) {
+        long groupId = EntityIds.of(e.group);
+        LongLongMap deltas = new LongLongMap();
+        accumulate(e, 1, deltas);
+        apply(groupId, deltas);
+        UserBalanceRollup.Deltas pairs = new UserBalanceRollup.Deltas();
+        UserBalanceRollup.accumulate(e, 1, pairs);
+        rollup.apply(groupId, pairs);
+        history.log(groupId, e.settlement ? BalanceEventEntity.SETTLED : BalanceEventEntity.EXPENSE_CREATED, e.id, deltas);
+        return deltas;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public LongLongMap reverse(ExpenseEntity e) {
+        long groupId = EntityIds.of(e.group);
+        LongLongMap deltas = new LongLongMap();
+        accumulate(e, -1, deltas);
+        apply(groupId, deltas);
+        UserBalanceRollup.Deltas pairs = new UserBalanceRollup.Deltas();
+        UserBalanceRollup.accumulate(e, -1, pairs);
+        rollup.apply(groupId, pairs);
+        history.log(groupId, BalanceEventEntity.EXPENSE_DELETED, e.id, deltas);
+        return deltas;
+    }
+
+    // Applies deltas gathered with the accumulate() methods for many expenses of one group in a single pass
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(long groupId, LongLongMap deltas, UserBalanceRollup.Deltas pairs) {
+        apply(groupId, deltas);
+        rollup.apply(groupId, pairs);
+        history.log(groupId, BalanceEventEntity.IMPORTED, null, deltas);
+    }
+
+    // The same for expenses of many groups (groupId -> deltas), with a fixed number of statements
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(String kind, Map<Long, LongLongMap> deltas, Map<Long, UserBalanceRollup.Deltas> pairs) {
+        apply(deltas);
+        rollup.apply(pairs);
+        history.log(kind, deltas);
+    }
+
+    public static void accumulate(ExpenseEntity e, LongLongMap into) {
+        accumulate(e, 1, into);
+    }
+
+    // Archiving clears every active expense of the group, so all positions return to zero
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reset(long groupId) {
+        balanceRepo.resetByGroupId(groupId);
+        groupRepo.setOpenBalances(groupId, 0);
+        rollup.clear(groupId);
+    }
+
+    // Constant-time check backed by the group's running count of non-zero positions
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean isSettled(long groupId) {
+        Integer open = groupRepo.findOpenBalances(groupId);
+        if (open == null) {
+            open = (int) balanceRepo.countOpen(groupId);
+            groupRepo.setOpenBalances(groupId, open);
+        }
+        return open == 0;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void forget(long groupId) {
+        balanceRepo.deleteByGroupId(groupId);
+        rollup.clear(groupId);
+        history.forget(groupId);
+    }
+
+    // userId -> net cents, for users that have a ledger row in this group
+    @Transactional(readOnly = true)
+    public LongLongMap netPositions(long groupId) {
+        List<GroupBalanceEntity> rows = balanceRepo.findByGroupId(groupId);
+        LongLongMap net = new LongLongMap(rows.size());
+        for (GroupBalanceEntity b : rows) {
+            net.put(b.userId, b.netCents == null ? 0L : b.netCents);
+        }
+        return net;
+    }
+
+    // Net positions rebuilt from the raw active expenses, ignoring the ledger
+    @Transactional(readOnly = true)
+    public LongLongMap recompute(long groupId) {
+        return recompute(expenseRepo.findByGroup_IdAndArchivedFalse(groupId));
+    }
+
+    private static LongLongMap recompute(List<ExpenseEntity> activeExpenses) {
+        LongLongMap net = new LongLongMap();
+        for (ExpenseEntity e : activeExpenses) {
+            accumulate(e, 1, net);
+        }
+        return net;
+    }
+
+    // Rebuilds the group's ledger rows and its share of the per-user rollup. The version bump locks
+    // the group first, so no delta lands between the read and the rewrite, and changes the ETag.
+    @Transactional
+    public LongLongMap rebuild(long groupId) {
+        if (groupRepo.bumpVersions(List.of(groupId)) == 0) throw new RuntimeException("Group not found: " + groupId);
+        List<ExpenseEntity> active = expenseRepo.findByGroup_IdAndArchivedFalse(groupId);
+        LongLongMap net = recompute(active);
+        rollup.rebuild(groupId, active);
+        // The log records the repair as one correction, so replayed history matches the rebuilt ledger
+        LongLongMap correction = new LongLongMap(net.size());
+        correction.addAll(net);
+        LongLongMap stored = netPositions(groupId);
+        for (int i = 0; i < stored.size(); i++) correction.add(stored.keyAt(i), -stored.valueAt(i));
+        history.log(groupId, BalanceEventEntity.CORRECTED, null, correction);
+        balanceRepo.deleteByGroupId(groupId);
+        balanceRepo.flush();
+        List<GroupBalanceEntity> rows = new ArrayList<>(net.size());
+        int open = 0;
+        for (int i = 0; i < net.size(); i++) {
+            GroupBalanceEntity b = new GroupBalanceEntity();
+            b.groupId = groupId;
+            b.userId = net.keyAt(i);
+            b.netCents = net.valueAt(i);
+            if (b.netCents != 0) open++;
+            rows.add(b);
+        }
+        balanceRepo.saveAll(rows);
+        groupRepo.setOpenBalances(groupId, open);
+        return net;
+    }
+
+    private static void accumulate(ExpenseEntity e, int sign, LongLongMap into) {
+        if (e.paidBy != null && e.amountCents != null) {
+            into.add(EntityIds.of(e.paidBy), sign * e.amountCents);
+        }
+        if (e.splits != null) {
+            for (ExpenseSplitEntity s : e.splits) {
+                if (s.user != null && s.amountOwedCents != null) {
+                    into.add(EntityIds.of(s.user), -sign * s.amountOwedCents);
+                }
+            }
+        }
+    }
+
+    private void apply(long groupId, LongLongMap deltas) {
+        apply(Map.of(groupId, deltas));
+    }
+
+    private void apply(Map<Long, LongLongMap> byGroup) {
+        Set<Long> groupIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        byGroup.forEach((groupId, deltas) -> {
+            if (deltas.isEmpty()) return;
+            groupIds.add(groupId);
+            for (int i = 0; i < deltas.size(); i++) userIds.add(deltas.keyAt(i));
+        });
+        if (groupIds.isEmpty()) return;
+
+        // Row locks serialize concurrent writers touching the same members of a group
+        Map<Long, Map<Long, GroupBalanceEntity>> rows = new HashMap<>();
+        for (GroupBalanceEntity b : balanceRepo.findForUpdate(groupIds, userIds)) {
+            rows.computeIfAbsent(b.groupId, id -> new HashMap<>()).put(b.userId, b);
+        }
+        List<GroupBalanceEntity> created = new ArrayList<>();
+        // Groups whose count of open positions moves by the same amount share one update
+        Map<Integer, List<Long>> byOpenDelta = new HashMap<>();
+        for (Long groupId : groupIds) {
+            LongLongMap deltas = byGroup.get(groupId);
+            Map<Long, GroupBalanceEntity> ofGroup = rows.getOrDefault(groupId, Map.of());
+            int openDelta = 0;
+            for (int i = 0; i < deltas.size(); i++) {
+                long userId = deltas.keyAt(i);
+                GroupBalanceEntity b = ofGroup.get(userId);
+                if (b == null) {
+                    b = new GroupBalanceEntity();
+                    b.groupId = groupId;
+                    b.userId = userId;
+                    created.add(b);
+                }
+                long before = b.netCents == null ? 0L : b.netCents;
+                b.netCents = before + deltas.valueAt(i);
+                openDelta += (b.netCents != 0 ? 1 : 0) - (before != 0 ? 1 : 0);
+            }
+            if (openDelta != 0) byOpenDelta.computeIfAbsent(openDelta, d -> new ArrayList<>()).add(groupId);
+        }
+        if (!created.isEmpty()) balanceRepo.saveAll(created);
+        byOpenDelta.forEach((openDelta, ids) -> groupRepo.adjustOpenBalances(ids, openDelta));
+    }
+}
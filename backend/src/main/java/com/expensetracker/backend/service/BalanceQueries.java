@@ -0,0 +1,71 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.DebtDto;
+import com.expensetracker.backend.repo.GroupRepository;
+import com.expensetracker.backend.service.settlement.SettlementPlanner;
+import com.expensetracker.backend.util.LongLongMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+// Suggested transfers per group, version and strategy; cached like GroupQueries
+@Service
+public class BalanceQueries {
+
+    public static final String BALANCES = "balances";
+
+    private final GroupRepository groupRepo;
+    private final GroupQueries groupQueries;
+    private final BalanceLedger ledger;
+    private final SettlementPlanner planner;
+    private final BalanceHistory history;
+    private final MeterRegistry registry;
+
+    public BalanceQueries(
+            GroupRepository groupRepo,
+            GroupQueries groupQueries,
+            BalanceLedger ledger,
+            SettlementPlanner planner,
+            BalanceHistory history,
+            MeterRegistry registry
+    ) {
+        this.groupRepo = groupRepo;
+        this.groupQueries = groupQueries;
+        this.ledger = ledger;
+        this.planner = planner;
+        this.history = history;
+        this.registry = registry;
+    }
+
+    // version is the one the caller's ETag carries; the ledger is read after it on the primary
+    @Cacheable(cacheNames = BALANCES, key = "#groupId + ':' + #version + ':' + #strategy.toLowerCase()")
+    @Transactional
+    public List<DebtDto> debts(long groupId, long version, String strategy) {
+        // Only cache misses get here, so this times the actual computation
+        Timer.Sample sample = Timer.start(registry);
+        List<Long> memberIds = groupQueries.memberIds(groupId, version);
+        if (memberIds.isEmpty() && !groupRepo.existsById(groupId)) {
+            throw new RuntimeException("Group not found: " + groupId);
+        }
+        LongLongMap net = new LongLongMap(memberIds.size());
+        for (Long id : memberIds) net.put(id, 0L);
+        net.addAll(ledger.netPositions(groupId));
+        List<DebtDto> debts = List.copyOf(planner.plan(strategy, net));
+        sample.stop(Timer.builder("app.balances.compute")
+                .description("Ledger read and settlement planning for one group")
+                .tag("strategy", strategy.toLowerCase())
+                .register(registry));
+        return debts;
+    }
+
+    // Not cached; positions are replayed from the balance event log
+    @Transactional(readOnly = true)
+    public List<DebtDto> debtsAsOf(long groupId, String strategy, Instant asOf) {
+        return List.copyOf(planner.plan(strategy, history.positionsAsOf(groupId, asOf)));
+    }
+}
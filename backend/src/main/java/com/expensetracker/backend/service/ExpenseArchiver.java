@@ -0,0 +1,139 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.entity.ArchivePurgeEntity;
+import com.expensetracker.backend.repo.ArchivePurgeRepository;
+import com.expensetracker.backend.repo.ExpenseArchiveRepository;
+import com.expensetracker.backend.repo.ExpenseRepository;
+import com.expensetracker.backend.repo.ExpenseSplitRepository;
+import com.expensetracker.backend.repo.GroupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Moves a settled group's expenses out of the active tables and retires archived history.
+ * <p>
+ * Settling copies the active splits and expenses into the archive under the group's next batch
+ * number and deletes them, four set-based statements however many rows move. Clearing only
+ * records that every batch so far is hidden, which costs the same for any amount of history,
+ * and queues the group in archive_purges. A scheduled job then works through that queue, deleting
+ * each queued group's hidden rows (all of them for a deleted group) in bounded chunks over the
+ * (group_id, batch) indexes, and taking each chunk out of the daily spending rollup in the same
+ * transaction. A run with nothing queued reads one empty page.
+ */
+@Service
+public class ExpenseArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseArchiver.class);
+    private static final int PURGE_CHUNK = 5000;
+    private static final int PURGE_PAGE = 100;
+
+    private final GroupRepository groupRepo;
+    private final ExpenseRepository expenseRepo;
+    private final ExpenseSplitRepository splitRepo;
+    private final ExpenseArchiveRepository archiveRepo;
+    private final ArchivePurgeRepository purgeRepo;
+    private final SpendingRollup spending;
+    private final TransactionTemplate tx;
+
+    public ExpenseArchiver(
+            GroupRepository groupRepo,
+            ExpenseRepository expenseRepo,
+            ExpenseSplitRepository splitRepo,
+            ExpenseArchiveRepository archiveRepo,
+            ArchivePurgeRepository purgeRepo,
+            SpendingRollup spending,
+            PlatformTransactionManager txManager
+    ) {
+        this.groupRepo = groupRepo;
+        this.expenseRepo = expenseRepo;
+        this.splitRepo = splitRepo;
+        this.archiveRepo = archiveRepo;
+        this.purgeRepo = purgeRepo;
+        this.spending = spending;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    // Returns the number of expenses moved
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int archiveActive(long groupId) {
+        groupRepo.nextArchiveBatch(groupId);
+        archiveRepo.copyActiveSplits(groupId);
+        int moved = archiveRepo.copyActiveExpenses(groupId);
+        splitRepo.deleteActiveOfGroup(groupId);
+        expenseRepo.deleteActive(groupId);
+        return moved;
+    }
+
+    // False when there was nothing left to clear. The caller holds the group's row lock
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean clear(long groupId) {
+        if (groupRepo.clearArchivedBatches(groupId) == 0) return false;
+        queuePurge(groupId, groupRepo.findClearedBatches(groupId));
+        return true;
+    }
+
+    // The group is being deleted: all of its history goes
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void forget(long groupId) {
+        queuePurge(groupId, Long.MAX_VALUE);
+    }
+
+    private void queuePurge(long groupId, long throughBatch) {
+        ArchivePurgeEntity p = purgeRepo.findById(groupId).orElseGet(ArchivePurgeEntity::new);
+        p.groupId = groupId;
+        p.throughBatch = p.throughBatch == null ? throughBatch : Math.max(p.throughBatch, throughBatch);
+        purgeRepo.save(p);
+    }
+
+    @Scheduled(fixedDelayString = "${app.archive.purge-delay:PT1M}")
+    public void purgeCleared() {
+        long splits = 0;
+        long expenses = 0;
+        long after = 0;
+        List<ArchivePurgeEntity> page;
+        do {
+            long from = after;
+            page = tx.execute(status -> purgeRepo.findByGroupIdGreaterThanOrderByGroupId(from, PageRequest.of(0, PURGE_PAGE)));
+            for (ArchivePurgeEntity p : page) {
+                int n;
+                // Splits first, so a crash between chunks never leaves splits without their expense row
+                do {
+                    n = tx.execute(status -> purgeSplits(p.groupId, p.throughBatch, PURGE_CHUNK));
+                    splits += n;
+                } while (n == PURGE_CHUNK);
+                do {
+                    n = tx.execute(status -> purgeExpenses(p.groupId, p.throughBatch, PURGE_CHUNK));
+                    expenses += n;
+                } while (n == PURGE_CHUNK);
+                tx.executeWithoutResult(status -> purgeRepo.deleteIfUnchanged(p.groupId, p.throughBatch));
+                after = p.groupId;
+            }
+        } while (page.size() == PURGE_PAGE);
+        if (splits + expenses > 0) log.info("Purged {} archived expenses and {} splits", expenses, splits);
+    }
+
+    private int purgeSplits(long groupId, long throughBatch, int limit) {
+        List<Long> ids = archiveRepo.findPurgeableSplitIds(groupId, throughBatch, limit);
+        if (ids.isEmpty()) return 0;
+        spending.subtract(archiveRepo.findSplitSpend(ids));
+        archiveRepo.deleteSplitsByIds(ids);
+        return ids.size();
+    }
+
+    private int purgeExpenses(long groupId, long throughBatch, int limit) {
+        List<Long> ids = archiveRepo.findPurgeableExpenseIds(groupId, throughBatch, limit);
+        if (ids.isEmpty()) return 0;
+        spending.subtract(archiveRepo.findPaidSpend(ids));
+        archiveRepo.deleteByIds(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,173 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.BatchRowResultDto;
+import com.expensetracker.backend.dto.CreateExpenseRequest;
+import com.expensetracker.backend.dto.GroupEventDto;
+import com.expensetracker.backend.entity.ExpenseEntity;
+import com.expensetracker.backend.entity.ExpenseSplitEntity;
+import com.expensetracker.backend.entity.GroupEntity;
+import com.expensetracker.backend.entity.UserEntity;
+import com.expensetracker.backend.repo.GroupRepository;
+import com.expensetracker.backend.repo.UserRepository;
+import com.expensetracker.backend.util.LongLongMap;
+import com.expensetracker.backend.util.Money;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Inserts many expenses of one group, a chunk of rows per transaction. Each chunk is read off the
+ * rows before its transaction starts, so a client that uploads slowly holds neither the group's row
+ * lock nor a pooled connection meanwhile, and heap use does not grow with the batch length. A chunk
+ * resolves its users with one query and persists through JDBC batching.
+ * <p>
+ * The versions the client's If-Match names are checked by the first chunk. Later chunks are unconditional
+ * writes like any other, so another writer may land between two of them; a later chunk that fails
+ * leaves the ones before it committed and has its rows reported as 409.
+ */
+@Service
+public class ExpenseBatchWriter {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final EntityManager em;
+    private final GroupRepository groupRepo;
+    private final UserRepository userRepo;
+    private final ExpenseSplitter splitter;
+    private final BalanceLedger ledger;
+    private final GroupEvents events;
+    private final SpendingRollup spending;
+    private final TransactionTemplate tx;
+
+    public ExpenseBatchWriter(
+            EntityManager em,
+            GroupRepository groupRepo,
+            UserRepository userRepo,
+            ExpenseSplitter splitter,
+            BalanceLedger ledger,
+            GroupEvents events,
+            SpendingRollup spending,
+            PlatformTransactionManager txManager
+    ) {
+        this.em = em;
+        this.groupRepo = groupRepo;
+        this.userRepo = userRepo;
+        this.splitter = splitter;
+        this.ledger = ledger;
+        this.events = events;
+        this.spending = spending;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    // expectedVersions are the ones the client's If-Match lists; null accepts whatever version is current
+    public List<BatchRowResultDto> write(long groupId, Set<Long> expectedVersions, Iterator<CreateExpenseRequest> rows) {
+        List<BatchRowResultDto> results = new ArrayList<>();
+        int index = 0;
+        do {
+            List<CreateExpenseRequest> chunk = new ArrayList<>(CHUNK_SIZE);
+            while (chunk.size() < CHUNK_SIZE && rows.hasNext()) chunk.add(rows.next());
+            int firstIndex = index;
+            Set<Long> expected = firstIndex == 0 ? expectedVersions : null;
+            List<BatchRowResultDto> written;
+            try {
+                written = tx.execute(status -> writeChunk(groupId, expected, chunk, firstIndex));
+            } catch (RuntimeException ex) {
+                if (firstIndex == 0) throw ex;
+                written = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    written.add(new BatchRowResultDto(firstIndex + i, 409, null, "Not written: " + ex.getMessage()));
+                }
+            }
+            results.addAll(written);
+            index += chunk.size();
+        } while (rows.hasNext());
+        return results;
+    }
+
+    private List<BatchRowResultDto> writeChunk(long groupId, Set<Long> expectedVersions, List<CreateExpenseRequest> chunk, int firstIndex) {
+        GroupEntity group = groupRepo.findForWrite(groupId, expectedVersions != null)
+                .orElseThrow(() -> new RuntimeException("Group not found: " + groupId));
+        if (expectedVersions != null && !expectedVersions.contains(group.version)) {
+            throw new StaleVersionException(groupId);
+        }
+        List<Long> memberIds = group.members.stream().map(u -> u.id).toList();
+
+        // Members cover EQUAL splits; other referenced users are looked up once for the chunk
+        Map<Long, UserEntity> users = new HashMap<>();
+        for (UserEntity u : group.members) users.put(u.id, u);
+        LongLongMap deltas = new LongLongMap();
+        UserBalanceRollup.Deltas pairs = new UserBalanceRollup.Deltas();
+        SpendingRollup.Deltas spent = new SpendingRollup.Deltas();
+        List<BatchRowResultDto> results = new ArrayList<>(chunk.size());
+
+        Set<Long> missing = new HashSet<>();
+        for (CreateExpenseRequest req : chunk) {
+            if (req == null) continue;
+            missing.add(req.paidByUserId);
+            if (req.splits != null) missing.addAll(req.splits.keySet());
+        }
+        missing.removeAll(users.keySet());
+        if (!missing.isEmpty()) {
+            for (UserEntity u : userRepo.findAllById(missing)) users.put(u.id, u);
+        }
+
+        for (int i = 0; i < chunk.size(); i++) {
+            int index = firstIndex + i;
+            CreateExpenseRequest req = chunk.get(i);
+            if (req == null || req.description == null || req.paidByUserId <= 0 || req.amount <= 0) {
+                results.add(new BatchRowResultDto(index, 400, null, "Invalid expense"));
+                continue;
+            }
+            UserEntity paidBy = users.get(req.paidByUserId);
+            if (paidBy == null) {
+                results.add(new BatchRowResultDto(index, 404, null, "User not found: " + req.paidByUserId));
+                continue;
+            }
+            long amountCents = Money.toCents(req.amount);
+            Map<Long, Long> splits;
+            try {
+                splits = splitter.splits(req, amountCents, memberIds);
+            } catch (IllegalArgumentException ex) {
+                results.add(new BatchRowResultDto(index, 400, null, ex.getMessage()));
+                continue;
+            }
+            Long unknown = splits == null ? null
+                    : splits.keySet().stream().filter(id -> !users.containsKey(id)).findFirst().orElse(null);
+            if (unknown != null) {
+                results.add(new BatchRowResultDto(index, 404, null, "User not found: " + unknown));
+                continue;
+            }
+
+            ExpenseEntity e = new ExpenseEntity();
+            e.group = group;
+            e.paidBy = paidBy;
+            e.amountCents = amountCents;
+            e.description = req.description;
+            e.incurredOn = req.incurredOn;
+            e.archived = false;
+            if (splits != null) {
+                for (Map.Entry<Long, Long> entry : splits.entrySet()) {
+                    ExpenseSplitEntity s = new ExpenseSplitEntity();
+                    s.expense = e;
+                    s.user = users.get(entry.getKey());
+                    s.amountOwedCents = entry.getValue();
+                    e.splits.add(s);
+                }
+            }
+            em.persist(e);
+            BalanceLedger.accumulate(e, deltas);
+            UserBalanceRollup.accumulate(e, 1, pairs);
+            SpendingRollup.accumulate(e, 1, spent);
+            results.add(new BatchRowResultDto(index, 201, e.id, null));
+        }
+
+        ledger.recordAll(groupId, deltas, pairs);
+        spending.apply(groupId, spent);
+        // One event per chunk, carrying its combined deltas
+        events.publish(GroupEventDto.EXPENSE_CREATED, groupId, groupRepo.versionAfterWrite(group, expectedVersions != null), null, deltas);
+        return results;
+    }
+}
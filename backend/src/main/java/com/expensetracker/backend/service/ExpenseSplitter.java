@@ -0,0 +1,37 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.CreateExpenseRequest;
+import com.expensetracker.backend.util.Money;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class ExpenseSplitter {
+
+    // userId -> cents owed; null when the request carries neither custom nor EQUAL splits
+    public Map<Long, Long> splits(CreateExpenseRequest req, long amountCents, Collection<Long> memberIds) {
+        if (req.splits != null) {
+            Map<Long, Long> splits = new LinkedHashMap<>();
+            req.splits.forEach((userId, amount) -> splits.put(userId, Money.toCents(amount == null ? 0.0 : amount)));
+            return splits;
+        }
+        if (req.splitType == null || !req.splitType.equalsIgnoreCase("EQUAL")) return null;
+        return equal(amountCents, memberIds);
+    }
+
+    public Map<Long, Long> equal(long amountCents, Collection<Long> memberIds) {
+        int n = memberIds.size();
+        if (n <= 0) throw new IllegalArgumentException("Group has no members to split between");
+        // Members in id order take the leftover cents, so shares always sum to the amount
+        long[] ids = memberIds.stream().mapToLong(Long::longValue).sorted().toArray();
+        long[] shares = Money.splitEvenly(amountCents, n);
+        Map<Long, Long> splits = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            splits.put(ids[i], shares[i]);
+        }
+        return splits;
+    }
+}
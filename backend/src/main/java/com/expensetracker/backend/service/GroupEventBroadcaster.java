@@ -0,0 +1,170 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.GroupEventDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events fan-out of committed group changes.
+ * <p>
+ * Open streams are async requests, so an idle subscriber holds no servlet thread. Each subscriber
+ * has a bounded queue drained by a small shared pool of sender threads: a committing request only
+ * enqueues, and a slow client delays no one else. A subscriber whose queue overflows is
+ * disconnected; EventSource reconnects and the page reloads its state from the summary endpoint.
+ */
+@Service
+public class GroupEventBroadcaster {
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger count = new AtomicInteger();
+    private final ExecutorService senders;
+    private final int queueSize;
+    private final int maxSubscribers;
+    private final Duration timeout;
+
+    public GroupEventBroadcaster(
+            MeterRegistry registry,
+            @Value("${app.events.senders:2}") int senders,
+            @Value("${app.events.queue-size:64}") int queueSize,
+            @Value("${app.events.max-subscribers:10000}") int maxSubscribers,
+            @Value("${app.events.timeout:PT30M}") Duration timeout
+    ) {
+        this.queueSize = queueSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+        AtomicInteger threads = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senders, r -> {
+            Thread t = new Thread(r, "group-events-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        Gauge.builder("app.events.subscribers", count, AtomicInteger::get)
+                .description("Open group event streams")
+                .register(registry);
+    }
+
+    // Null when the subscriber limit is reached
+    public SseEmitter subscribe(long groupId) {
+        if (count.incrementAndGet() > maxSubscribers) {
+            count.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber s = new Subscriber(groupId, emitter);
+        subscribers.computeIfAbsent(groupId, id -> ConcurrentHashMap.newKeySet()).add(s);
+        emitter.onCompletion(() -> remove(s));
+        emitter.onTimeout(() -> remove(s));
+        emitter.onError(ex -> remove(s));
+        // Sent right away so the client knows the stream is live and which version it starts from
+        s.offer(SseEmitter.event().comment("subscribed").build());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGroupEvent(GroupEventDto event) {
+        Set<Subscriber> group = subscribers.get(event.groupId);
+        if (group == null || group.isEmpty()) return;
+        SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                .name(event.type)
+                .data(event, MediaType.APPLICATION_JSON);
+        if (event.version != null) builder.id(event.version.toString());
+        // Built once and shared: a builder appends its terminator each time it is built
+        Set<DataWithMediaType> message = builder.build();
+        for (Subscriber s : group) {
+            s.offer(message);
+            if (GroupEventDto.GROUP_DELETED.equals(event.type)) s.close();
+        }
+    }
+
+    // Keeps proxies from closing quiet streams and detects clients that went away
+    @Scheduled(fixedDelayString = "${app.events.heartbeat:PT25S}")
+    public void heartbeat() {
+        Set<DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        for (Set<Subscriber> group : subscribers.values()) {
+            for (Subscriber s : group) s.offer(ping);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    private void remove(Subscriber s) {
+        Set<Subscriber> group = subscribers.get(s.groupId);
+        if (group != null && group.remove(s)) {
+            count.decrementAndGet();
+            if (group.isEmpty()) subscribers.remove(s.groupId, group);
+        }
+    }
+
+    private final class Subscriber {
+        final long groupId;
+        final SseEmitter emitter;
+        final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueSize);
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(long groupId, SseEmitter emitter) {
+            this.groupId = groupId;
+            this.emitter = emitter;
+        }
+
+        void offer(Set<DataWithMediaType> message) {
+            if (!queue.offer(message)) {
+                // Too far behind to catch up event by event; it will resync on reconnect
+                remove(this);
+                emitter.complete();
+                return;
+            }
+            schedule();
+        }
+
+        // Completes the stream once everything queued before it has been sent
+        void close() {
+            if (queue.offer(this)) schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) senders.execute(this::drain);
+        }
+
+        private void drain() {
+            try {
+                Object next;
+                while ((next = queue.poll()) != null) {
+                    if (next == this) {
+                        remove(this);
+                        emitter.complete();
+                        return;
+                    }
+                    @SuppressWarnings("unchecked")
+                    Set<DataWithMediaType> message = (Set<DataWithMediaType>) next;
+                    emitter.send(message);
+                }
+            } catch (IOException | IllegalStateException ex) {
+                remove(this);
+                queue.clear();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!queue.isEmpty()) schedule();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.GroupEventDto;
+import com.expensetracker.backend.util.LongLongMap;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Publishes group changes; GroupEventBroadcaster delivers them only if the surrounding transaction commits.
+// version is the one the write commits, taken inside its transaction; null when the group was deleted
+@Component
+public class GroupEvents {
+
+    private final ApplicationEventPublisher publisher;
+
+    public GroupEvents(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    public void publish(String type, long groupId, Long version) {
+        publish(type, groupId, version, null, null);
+    }
+
+    public void publish(String type, long groupId, Long version, Long expenseId, LongLongMap deltas) {
+        Map<Long, Long> balanceDeltas = new LinkedHashMap<>();
+        if (deltas != null) {
+            for (int i = 0; i < deltas.size(); i++) {
+                if (deltas.valueAt(i) != 0) balanceDeltas.put(deltas.keyAt(i), deltas.valueAt(i));
+            }
+        }
+        GroupEventDto event = new GroupEventDto(type, groupId, expenseId, balanceDeltas);
+        event.version = version;
+        publisher.publishEvent(event);
+    }
+}
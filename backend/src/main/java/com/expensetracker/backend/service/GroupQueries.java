@@ -0,0 +1,44 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.GroupDto;
+import com.expensetracker.backend.entity.GroupEntity;
+import com.expensetracker.backend.repo.GroupRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Cached group reads, keyed by group id and the version the caller put in its ETag. Every change
+ * to a group, its members or its balances bumps the version, so a write makes the older entries
+ * unreachable and they age out; nothing needs evicting. Entries are loaded on the primary after the
+ * caller read the version, so an entry is never older than its key. Loading in a read-only
+ * transaction could fill it from a replica that has not caught up.
+ */
+@Service
+public class GroupQueries {
+
+    public static final String GROUPS = "groups";
+    public static final String GROUP_MEMBERS = "groupMembers";
+
+    private final GroupRepository groupRepo;
+
+    public GroupQueries(GroupRepository groupRepo) {
+        this.groupRepo = groupRepo;
+    }
+
+    @Cacheable(cacheNames = GROUPS, key = "#groupId + ':' + #version")
+    @Transactional
+    public GroupDto group(long groupId, long version) {
+        GroupEntity g = groupRepo.findById(groupId)
+                .orElseThrow(() -> new RuntimeException("Group not found: " + groupId));
+        return new GroupDto(g.id, g.name, groupRepo.findMemberIds(groupId));
+    }
+
+    @Cacheable(cacheNames = GROUP_MEMBERS, key = "#groupId + ':' + #version")
+    @Transactional
+    public List<Long> memberIds(long groupId, long version) {
+        return List.copyOf(groupRepo.findMemberIds(groupId));
+    }
+}
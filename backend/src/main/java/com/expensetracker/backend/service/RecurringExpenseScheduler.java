@@ -0,0 +1,272 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.GroupEventDto;
+import com.expensetracker.backend.dto.GroupMemberRowDto;
+import com.expensetracker.backend.dto.RecurringPeriodDto;
+import com.expensetracker.backend.entity.BalanceEventEntity;
+import com.expensetracker.backend.entity.ExpenseEntity;
+import com.expensetracker.backend.entity.ExpenseSplitEntity;
+import com.expensetracker.backend.entity.GroupEntity;
+import com.expensetracker.backend.entity.RecurringExpenseEntity;
+import com.expensetracker.backend.entity.UserEntity;
+import com.expensetracker.backend.repo.ExpenseArchiveRepository;
+import com.expensetracker.backend.repo.ExpenseRepository;
+import com.expensetracker.backend.repo.GroupRepository;
+import com.expensetracker.backend.repo.RecurringExpenseRepository;
+import com.expensetracker.backend.repo.UserRepository;
+import com.expensetracker.backend.util.LongLongMap;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.*;
+
+/**
+ * Posts the due periods of recurring expense templates across all groups.
+ * <p>
+ * Templates are claimed a chunk at a time, each chunk in its own transaction: the claim row-locks
+ * them (rows another instance holds are skipped), the periods' expenses go out as JDBC batches,
+ * and next_run_at moves past the posted periods before commit. A restart resumes after the last
+ * committed chunk, and the unique (recurring_id, recurring_period) key rejects any second posting
+ * of a period. Balances and the pairwise and spending rollups take the whole chunk's deltas at once,
+ * so the statements per chunk do not grow with the number of groups it touches.
+ */
+@Service
+public class RecurringExpenseScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringExpenseScheduler.class);
+    // Periods posted per template per chunk, so a schedule that was stopped for long catches up over several chunks
+    private static final int MAX_PERIODS = 100;
+
+    private final EntityManager em;
+    private final RecurringExpenseRepository repo;
+    private final ExpenseRepository expenseRepo;
+    private final ExpenseArchiveRepository archiveRepo;
+    private final GroupRepository groupRepo;
+    private final UserRepository userRepo;
+    private final ExpenseSplitter splitter;
+    private final BalanceLedger ledger;
+    private final SpendingRollup spending;
+    private final GroupEvents events;
+    private final TransactionTemplate tx;
+    private final int chunkSize;
+
+    public RecurringExpenseScheduler(
+            EntityManager em,
+            RecurringExpenseRepository repo,
+            ExpenseRepository expenseRepo,
+            ExpenseArchiveRepository archiveRepo,
+            GroupRepository groupRepo,
+            UserRepository userRepo,
+            ExpenseSplitter splitter,
+            BalanceLedger ledger,
+            SpendingRollup spending,
+            GroupEvents events,
+            PlatformTransactionManager txManager,
+            @Value("${app.recurring.chunk-size:500}") int chunkSize
+    ) {
+        this.em = em;
+        this.repo = repo;
+        this.expenseRepo = expenseRepo;
+        this.archiveRepo = archiveRepo;
+        this.groupRepo = groupRepo;
+        this.userRepo = userRepo;
+        this.splitter = splitter;
+        this.ledger = ledger;
+        this.spending = spending;
+        this.events = events;
+        this.tx = new TransactionTemplate(txManager);
+        this.chunkSize = chunkSize;
+    }
+
+    // First period at or after the given time; null when the schedule never fires again
+    public static Instant firstRun(CronExpression cron, ZoneId zone, Instant from) {
+        ZonedDateTime next = cron.next(from.atZone(zone).minusNanos(1));
+        return next == null ? null : next.toInstant();
+    }
+
+    // Shortest gap between consecutive periods over the first few from the given one; null if it never fires again
+    public static Duration shortestGap(CronExpression cron, ZoneId zone, Instant first, int periods) {
+        Duration shortest = null;
+        ZonedDateTime period = first.atZone(zone);
+        for (int n = 0; n < periods; n++) {
+            ZonedDateTime next = cron.next(period);
+            if (next == null) break;
+            Duration gap = Duration.between(period, next);
+            if (shortest == null || gap.compareTo(shortest) < 0) shortest = gap;
+            period = next;
+        }
+        return shortest;
+    }
+
+    // Periods from the given one through now, counted no further than limit + 1
+    public static int periodsThrough(CronExpression cron, ZoneId zone, Instant first, Instant now, int limit) {
+        int count = 0;
+        ZonedDateTime period = first.atZone(zone);
+        while (period != null && !period.toInstant().isAfter(now) && count <= limit) {
+            count++;
+            period = cron.next(period);
+        }
+        return count;
+    }
+
+    // First run one delay after startup rather than during it
+    @Scheduled(initialDelayString = "${app.recurring.delay:PT1M}", fixedDelayString = "${app.recurring.delay:PT1M}")
+    public void postDue() {
+        int posted = postDue(Instant.now());
+        if (posted > 0) log.info("Posted {} recurring expenses", posted);
+    }
+
+    // Returns the number of expenses posted for periods at or before now
+    public int postDue(Instant now) {
+        int posted = 0;
+        while (true) {
+            int[] chunk = tx.execute(status -> postChunk(now));
+            posted += chunk[1];
+            if (chunk[0] == 0) return posted;
+        }
+    }
+
+    // {templates claimed, expenses posted}
+    private int[] postChunk(Instant now) {
+        List<Long> ids = repo.claimDue(now, chunkSize);
+        if (ids.isEmpty()) return new int[]{0, 0};
+        List<RecurringExpenseEntity> templates = repo.findByIdIn(ids);
+
+        List<Long> groupIds = templates.stream().map(t -> t.groupId).distinct().sorted().toList();
+        // Like any unconditional write: row-locks the groups and moves their ETags on. The locks are
+        // taken in id order first, as every multi-group writer does; the update alone locks in plan order
+        groupRepo.lockByIds(groupIds);
+        groupRepo.bumpVersions(groupIds);
+        Map<Long, GroupEntity> groups = new HashMap<>();
+        for (GroupEntity g : groupRepo.findAllById(groupIds)) groups.put(g.id, g);
+        Map<Long, List<Long>> members = new HashMap<>();
+        Set<Long> userIds = new HashSet<>();
+        for (GroupMemberRowDto row : groupRepo.findMemberRowsByGroupIds(groupIds)) {
+            List<Long> ofGroup = members.computeIfAbsent(row.groupId, id -> new ArrayList<>());
+            if (row.memberId != null) {
+                ofGroup.add(row.memberId);
+                userIds.add(row.memberId);
+            }
+        }
+        for (RecurringExpenseEntity t : templates) {
+            userIds.add(t.paidByUserId);
+            userIds.addAll(t.splitCents.keySet());
+        }
+        Map<Long, UserEntity> users = new HashMap<>();
+        for (UserEntity u : userRepo.findAllById(userIds)) users.put(u.id, u);
+        // Periods that already have an expense, active or settled into the archive, are stepped over rather
+        // than failing the chunk on the unique key or posting a settled period a second time
+        Instant earliest = templates.stream().map(t -> t.nextRunAt).min(Comparator.naturalOrder()).orElse(now);
+        Map<Long, Set<Instant>> posted = new HashMap<>();
+        List<RecurringPeriodDto> postedPeriods = new ArrayList<>(expenseRepo.findPostedPeriods(ids, earliest));
+        postedPeriods.addAll(archiveRepo.findPostedPeriods(ids, earliest));
+        for (RecurringPeriodDto p : postedPeriods) {
+            posted.computeIfAbsent(p.recurringId, id -> new HashSet<>()).add(p.period);
+        }
+
+        Map<Long, LongLongMap> deltas = new HashMap<>();
+        Map<Long, UserBalanceRollup.Deltas> pairs = new HashMap<>();
+        Map<Long, SpendingRollup.Deltas> spent = new HashMap<>();
+        List<ExpenseEntity> persisted = new ArrayList<>();
+        List<RecurringExpenseEntity> ended = new ArrayList<>();
+        // Most templates of a chunk move on to the same next period, so they share one update
+        Map<Instant, List<Long>> advanced = new HashMap<>();
+        Map<String, CronExpression> crons = new HashMap<>();
+        int skipped = 0;
+        for (RecurringExpenseEntity t : templates) {
+            GroupEntity group = groups.get(t.groupId);
+            if (group == null) {
+                ended.add(t);
+                continue;
+            }
+            CronExpression cron = crons.computeIfAbsent(t.cron, CronExpression::parse);
+            ZoneId zone = ZoneId.of(t.timeZone);
+            Instant period = t.nextRunAt;
+            Set<Instant> done = posted.getOrDefault(t.id, Set.of());
+            for (int n = 0; period != null && !period.isAfter(now) && n < MAX_PERIODS; n++) {
+                if (!done.contains(period)) {
+                    ExpenseEntity e = build(t, group, period, zone, members.getOrDefault(t.groupId, List.of()), users);
+                    if (e == null) {
+                        skipped++;
+                    } else {
+                        em.persist(e);
+                        persisted.add(e);
+                        BalanceLedger.accumulate(e, deltas.computeIfAbsent(t.groupId, id -> new LongLongMap()));
+                        UserBalanceRollup.accumulate(e, 1, pairs.computeIfAbsent(t.groupId, id -> new UserBalanceRollup.Deltas()));
+                        SpendingRollup.accumulate(e, 1, spent.computeIfAbsent(t.groupId, id -> new SpendingRollup.Deltas()));
+                    }
+                }
+                ZonedDateTime next = cron.next(period.atZone(zone));
+                period = next == null ? null : next.toInstant();
+            }
+            if (period == null) ended.add(t);
+            else advanced.computeIfAbsent(period, p -> new ArrayList<>()).add(t.id);
+        }
+        for (RecurringExpenseEntity t : templates) em.detach(t);
+        advanced.forEach((next, templateIds) -> repo.advance(templateIds, next));
+        if (!ended.isEmpty()) {
+            List<Long> endedIds = ended.stream().map(t -> t.id).toList();
+            repo.deleteSplitsByIds(endedIds);
+            repo.deleteByIds(endedIds);
+        }
+        em.flush();
+        for (ExpenseEntity e : persisted) em.detach(e);
+
+        ledger.recordAll(BalanceEventEntity.RECURRING, deltas, pairs);
+        spending.apply(spent);
+        deltas.forEach((groupId, d) -> events.publish(GroupEventDto.EXPENSE_CREATED, groupId, groups.get(groupId).version, null, d));
+        if (skipped > 0) log.warn("Skipped {} recurring periods whose payer, split users or members are gone", skipped);
+        return new int[]{ids.size(), persisted.size()};
+    }
+
+    // null when the period cannot be posted: payer or a split user was deleted, or an EQUAL split has nobody to split between
+    private ExpenseEntity build(
+            RecurringExpenseEntity t,
+            GroupEntity group,
+            Instant period,
+            ZoneId zone,
+            List<Long> memberIds,
+            Map<Long, UserEntity> users
+    ) {
+        UserEntity paidBy = users.get(t.paidByUserId);
+        if (paidBy == null) return null;
+        Map<Long, Long> splits;
+        if (RecurringExpenseEntity.CUSTOM.equals(t.splitType)) {
+            splits = t.splitCents;
+        } else {
+            if (memberIds.isEmpty()) return null;
+            splits = splitter.equal(t.amountCents, memberIds);
+        }
+        if (!users.keySet().containsAll(splits.keySet())) return null;
+
+        ExpenseEntity e = new ExpenseEntity();
+        e.group = group;
+        e.paidBy = paidBy;
+        e.amountCents = t.amountCents;
+        e.description = t.description;
+        e.incurredOn = LocalDate.ofInstant(period, zone);
+        e.archived = false;
+        e.recurringId = t.id;
+        e.recurringPeriod = period;
+        for (Map.Entry<Long, Long> entry : splits.entrySet()) {
+            ExpenseSplitEntity s = new ExpenseSplitEntity();
+            s.expense = e;
+            s.user = users.get(entry.getKey());
+            s.amountOwedCents = entry.getValue();
+            e.splits.add(s);
+        }
+        return e;
+    }
+}
@@ -0,0 +1,188 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.SpendRowDto;
+import com.expensetracker.backend.entity.DailySpendEntity;
+import com.expensetracker.backend.entity.ExpenseEntity;
+import com.expensetracker.backend.entity.ExpenseSplitEntity;
+import com.expensetracker.backend.repo.DailySpendRepository;
+import com.expensetracker.backend.repo.GroupRepository;
+import com.expensetracker.backend.util.EntityIds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Maintains daily_spend, the per (group, day, member) totals behind GET /groups/{id}/analytics.
+ * Creating or deleting an expense applies its delta in the same transaction; settle-up transfers
+ * are not spending and are skipped. Archived expenses keep counting until the background purge of
+ * cleared history removes them, which subtracts them here first, so a rebuild from the expense
+ * tables always reproduces the incremental state.
+ */
+@Service
+public class SpendingRollup {
+
+    private static final Logger log = LoggerFactory.getLogger(SpendingRollup.class);
+    private static final int REBUILD_PAGE = 500;
+
+    private final DailySpendRepository repo;
+    private final GroupRepository groupRepo;
+    private final TransactionTemplate tx;
+
+    public SpendingRollup(DailySpendRepository repo, GroupRepository groupRepo, PlatformTransactionManager txManager) {
+        this.repo = repo;
+        this.groupRepo = groupRepo;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    // day -> userId -> {paid, share}
+    public static final class Deltas {
+        private final Map<LocalDate, Map<Long, long[]>> byDay = new HashMap<>();
+
+        public void add(LocalDate day, long userId, long paidCents, long shareCents) {
+            long[] d = byDay.computeIfAbsent(day, k -> new HashMap<>()).computeIfAbsent(userId, k -> new long[2]);
+            d[0] += paidCents;
+            d[1] += shareCents;
+        }
+
+        public boolean isEmpty() {
+            return byDay.isEmpty();
+        }
+    }
+
+    public static LocalDate spentOn(Instant createdAt, LocalDate incurredOn) {
+        return incurredOn != null ? incurredOn : LocalDate.ofInstant(createdAt, ZoneOffset.UTC);
+    }
+
+    public static void accumulate(ExpenseEntity e, int sign, Deltas into) {
+        if (e.settlement) return;
+        LocalDate day = spentOn(e.createdAt, e.incurredOn);
+        if (e.paidBy != null && e.amountCents != null) {
+            into.add(day, EntityIds.of(e.paidBy), sign * e.amountCents, 0L);
+        }
+        for (ExpenseSplitEntity s : e.splits) {
+            if (s.user != null && s.amountOwedCents != null) {
+                into.add(day, EntityIds.of(s.user), 0L, sign * s.amountOwedCents);
+            }
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ExpenseEntity e) {
+        Deltas deltas = new Deltas();
+        accumulate(e, 1, deltas);
+        apply(EntityIds.of(e.group), deltas);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reverse(ExpenseEntity e) {
+        Deltas deltas = new Deltas();
+        accumulate(e, -1, deltas);
+        apply(EntityIds.of(e.group), deltas);
+    }
+
+    // Called by the archive purge with the rows it is about to delete
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void subtract(List<SpendRowDto> rows) {
+        Map<Long, Deltas> byGroup = new HashMap<>();
+        for (SpendRowDto r : rows) {
+            byGroup.computeIfAbsent(r.groupId, id -> new Deltas())
+                    .add(spentOn(r.createdAt, r.incurredOn), r.userId, -r.paidCents, -r.shareCents);
+        }
+        apply(byGroup);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(long groupId, Deltas deltas) {
+        apply(Map.of(groupId, deltas));
+    }
+
+    // groupId -> deltas; the rows of all groups are locked and written together
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Map<Long, Deltas> byGroup) {
+        Set<Long> groupIds = new HashSet<>();
+        Set<LocalDate> days = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        byGroup.forEach((groupId, deltas) -> {
+            if (deltas.isEmpty()) return;
+            groupIds.add(groupId);
+            days.addAll(deltas.byDay.keySet());
+            for (Map<Long, long[]> byUser : deltas.byDay.values()) userIds.addAll(byUser.keySet());
+        });
+        if (groupIds.isEmpty()) return;
+
+        // groupId -> day -> userId -> row
+        Map<Long, Map<LocalDate, Map<Long, DailySpendEntity>>> rows = new HashMap<>();
+        for (DailySpendEntity d : repo.findForUpdate(groupIds, days, userIds)) {
+            rows.computeIfAbsent(d.groupId, k -> new HashMap<>())
+                    .computeIfAbsent(d.spentOn, k -> new HashMap<>())
+                    .put(d.userId, d);
+        }
+        List<DailySpendEntity> created = new ArrayList<>();
+        List<DailySpendEntity> emptied = new ArrayList<>();
+        for (Long groupId : groupIds) {
+            Map<LocalDate, Map<Long, DailySpendEntity>> ofGroup = rows.getOrDefault(groupId, Map.of());
+            byGroup.get(groupId).byDay.forEach((day, byUser) -> byUser.forEach((userId, delta) -> {
+                DailySpendEntity d = ofGroup.getOrDefault(day, Map.of()).get(userId);
+                if (d == null) {
+                    d = new DailySpendEntity();
+                    d.groupId = groupId;
+                    d.spentOn = day;
+                    d.userId = userId;
+                    created.add(d);
+                }
+                d.paidCents += delta[0];
+                d.shareCents += delta[1];
+                if (d.paidCents == 0 && d.shareCents == 0) {
+                    if (d.id != null) emptied.add(d);
+                    else created.remove(d);
+                }
+            }));
+        }
+        if (!emptied.isEmpty()) repo.deleteAll(emptied);
+        if (!created.isEmpty()) repo.saveAll(created);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void forget(long groupId) {
+        repo.deleteByGroupId(groupId);
+    }
+
+    @Transactional
+    public int rebuild(long groupId) {
+        if (groupRepo.lockById(groupId).isEmpty()) return -1;
+        repo.deleteByGroupId(groupId);
+        return repo.insertRecomputed(groupId);
+    }
+
+    // Off unless app.analytics.rebuild-cron is set; each group is rebuilt in its own transaction
+    @Scheduled(cron = "${app.analytics.rebuild-cron:-}")
+    public void rebuildAll() {
+        long groups = 0;
+        long rows = 0;
+        List<Long> ids;
+        long after = 0L;
+        do {
+            ids = groupRepo.findIdsAfter(after, PageRequest.of(0, REBUILD_PAGE));
+            for (Long groupId : ids) {
+                Integer n = tx.execute(status -> rebuild(groupId));
+                if (n != null && n >= 0) {
+                    groups++;
+                    rows += n;
+                }
+                after = groupId;
+            }
+        } while (ids.size() == REBUILD_PAGE);
+        log.info("Rebuilt daily spending of {} groups ({} rows)", groups, rows);
+    }
+}
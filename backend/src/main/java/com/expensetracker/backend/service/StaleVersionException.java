@@ -0,0 +1,8 @@
+package com.expensetracker.backend.service;
+
+// The group changed since the version the client based its write on (If-Match)
+public class StaleVersionException extends RuntimeException {
+    public StaleVersionException(long groupId) {
+        super("Group " + groupId + " has changed");
+    }
+}
@@ -0,0 +1,139 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.entity.ExpenseEntity;
+import com.expensetracker.backend.entity.ExpenseSplitEntity;
+import com.expensetracker.backend.entity.UserBalanceEntity;
+import com.expensetracker.backend.repo.UserBalanceRepository;
+import com.expensetracker.backend.util.EntityIds;
+import com.expensetracker.backend.util.LongLongMap;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Maintains user_balances, the pairwise counterpart of the group ledger: for each user, what every
+ * counterparty owes them in each group. Each split of an expense is a debt from its user to the
+ * payer. BalanceLedger applies these deltas in the same transaction as its own, and rows are dropped
+ * when they reach zero, so a user's overall position is one indexed read of their non-zero pairs.
+ */
+@Service
+public class UserBalanceRollup {
+
+    private final UserBalanceRepository repo;
+
+    public UserBalanceRollup(UserBalanceRepository repo) {
+        this.repo = repo;
+    }
+
+    // creditor -> (debtor -> cents owed to the creditor)
+    public static final class Deltas {
+        private final Map<Long, LongLongMap> byCreditor = new HashMap<>();
+
+        public void add(long creditorId, long debtorId, long cents) {
+            byCreditor.computeIfAbsent(creditorId, id -> new LongLongMap()).add(debtorId, cents);
+        }
+
+        public boolean isEmpty() {
+            return byCreditor.isEmpty();
+        }
+    }
+
+    public static void accumulate(ExpenseEntity e, int sign, Deltas into) {
+        if (e.paidBy == null || e.splits == null) return;
+        Long payerId = EntityIds.of(e.paidBy);
+        for (ExpenseSplitEntity s : e.splits) {
+            if (s.user != null && s.amountOwedCents != null && !EntityIds.of(s.user).equals(payerId)) {
+                into.add(payerId, EntityIds.of(s.user), sign * s.amountOwedCents);
+            }
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(long groupId, Deltas deltas) {
+        apply(Map.of(groupId, deltas));
+    }
+
+    // groupId -> deltas; the rows of all groups are locked and written together
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Map<Long, Deltas> byGroup) {
+        Set<Long> groupIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        byGroup.forEach((groupId, deltas) -> {
+            if (deltas.isEmpty()) return;
+            groupIds.add(groupId);
+            deltas.byCreditor.forEach((creditor, debtors) -> {
+                userIds.add(creditor);
+                for (int i = 0; i < debtors.size(); i++) userIds.add(debtors.keyAt(i));
+            });
+        });
+        if (groupIds.isEmpty()) return;
+
+        // groupId -> userId -> counterpartyId -> row, holding both the locked existing rows and new ones
+        Map<Long, Map<Long, Map<Long, UserBalanceEntity>>> rows = new HashMap<>();
+        for (UserBalanceEntity b : repo.findPairsForUpdate(groupIds, userIds)) {
+            rows.computeIfAbsent(b.groupId, id -> new HashMap<>())
+                    .computeIfAbsent(b.userId, id -> new HashMap<>())
+                    .put(b.counterpartyId, b);
+        }
+        Set<UserBalanceEntity> created = new HashSet<>();
+        for (Long groupId : groupIds) {
+            Map<Long, Map<Long, UserBalanceEntity>> ofGroup = rows.computeIfAbsent(groupId, id -> new HashMap<>());
+            byGroup.get(groupId).byCreditor.forEach((creditor, debtors) -> {
+                for (int i = 0; i < debtors.size(); i++) {
+                    long debtor = debtors.keyAt(i);
+                    long cents = debtors.valueAt(i);
+                    row(ofGroup, created, groupId, creditor, debtor).netCents += cents;
+                    row(ofGroup, created, groupId, debtor, creditor).netCents -= cents;
+                }
+            });
+        }
+
+        List<UserBalanceEntity> inserts = new ArrayList<>();
+        List<UserBalanceEntity> zeroed = new ArrayList<>();
+        for (Map<Long, Map<Long, UserBalanceEntity>> ofGroup : rows.values()) {
+            for (Map<Long, UserBalanceEntity> byCounterparty : ofGroup.values()) {
+                for (UserBalanceEntity b : byCounterparty.values()) {
+                    boolean isNew = created.contains(b);
+                    if (isNew && b.netCents != 0) inserts.add(b);
+                    else if (!isNew && b.netCents == 0) zeroed.add(b);
+                }
+            }
+        }
+        if (!zeroed.isEmpty()) repo.deleteAll(zeroed);
+        if (!inserts.isEmpty()) repo.saveAll(inserts);
+    }
+
+    // Every active expense of the group is gone (settled or group deleted)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void clear(long groupId) {
+        repo.deleteByGroupId(groupId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void rebuild(long groupId, List<ExpenseEntity> activeExpenses) {
+        repo.deleteByGroupId(groupId);
+        repo.flush();
+        Deltas deltas = new Deltas();
+        for (ExpenseEntity e : activeExpenses) accumulate(e, 1, deltas);
+        apply(groupId, deltas);
+    }
+
+    private static UserBalanceEntity row(
+            Map<Long, Map<Long, UserBalanceEntity>> rows,
+            Set<UserBalanceEntity> created,
+            long groupId,
+            long userId,
+            long counterpartyId
+    ) {
+        return rows.computeIfAbsent(userId, id -> new HashMap<>()).computeIfAbsent(counterpartyId, id -> {
+            UserBalanceEntity b = new UserBalanceEntity();
+            b.userId = userId;
+            b.counterpartyId = counterpartyId;
+            b.groupId = groupId;
+            created.add(b);
+            return b;
+        });
+    }
+}
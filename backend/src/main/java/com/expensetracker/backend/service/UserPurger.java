@@ -0,0 +1,121 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.GroupEventDto;
+import com.expensetracker.backend.dto.UserDeletionResultDto;
+import com.expensetracker.backend.entity.GroupEntity;
+import com.expensetracker.backend.repo.ExpenseArchiveRepository;
+import com.expensetracker.backend.repo.ExpenseRepository;
+import com.expensetracker.backend.repo.DailySpendRepository;
+import com.expensetracker.backend.repo.ExpenseSplitRepository;
+import com.expensetracker.backend.repo.GroupBalanceRepository;
+import com.expensetracker.backend.repo.GroupRepository;
+import com.expensetracker.backend.repo.RecurringExpenseRepository;
+import com.expensetracker.backend.repo.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Deletes users with a fixed number of set-based statements per chunk of ids.
+ * <p>
+ * A user who still takes part in an active (unsettled) expense, as payer or in a split, is
+ * blocked: removing them would silently change everyone else's balances. Otherwise their
+ * archived splits are deleted, archived expenses they paid keep their amount with no payer
+ * (in both the active tables and expense_archive),
+ * and their ledger and daily spending rows, recurring templates they pay or share in and group
+ * memberships go before the user row itself.
+ * <p>
+ * The users' groups are locked before the check. A user who joins a new group and is charged
+ * there while the purge runs is not covered: the deletes then fail on the foreign key, or deadlock
+ * with an If-Match writer whose insert got in first, and the whole purge rolls back.
+ */
+@Service
+public class UserPurger {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final UserRepository userRepo;
+    private final GroupRepository groupRepo;
+    private final ExpenseRepository expenseRepo;
+    private final ExpenseSplitRepository splitRepo;
+    private final GroupBalanceRepository balanceRepo;
+    private final ExpenseArchiveRepository archiveRepo;
+    private final DailySpendRepository spendRepo;
+    private final RecurringExpenseRepository recurringRepo;
+    private final GroupEvents events;
+
+    public UserPurger(
+            UserRepository userRepo,
+            GroupRepository groupRepo,
+            ExpenseRepository expenseRepo,
+            ExpenseSplitRepository splitRepo,
+            GroupBalanceRepository balanceRepo,
+            ExpenseArchiveRepository archiveRepo,
+            DailySpendRepository spendRepo,
+            RecurringExpenseRepository recurringRepo,
+            GroupEvents events
+    ) {
+        this.userRepo = userRepo;
+        this.groupRepo = groupRepo;
+        this.expenseRepo = expenseRepo;
+        this.splitRepo = splitRepo;
+        this.balanceRepo = balanceRepo;
+        this.archiveRepo = archiveRepo;
+        this.spendRepo = spendRepo;
+        this.recurringRepo = recurringRepo;
+        this.events = events;
+    }
+
+    @Transactional
+    public UserDeletionResultDto delete(Collection<Long> ids) {
+        List<Long> deleted = new ArrayList<>();
+        List<Long> blocked = new ArrayList<>();
+        List<Long> notFound = new ArrayList<>();
+
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        for (int from = 0; from < distinct.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + CHUNK_SIZE, distinct.size()));
+            deleteChunk(chunk, deleted, blocked, notFound);
+        }
+        return new UserDeletionResultDto(deleted, blocked, notFound);
+    }
+
+    private void deleteChunk(List<Long> chunk, List<Long> deleted, List<Long> blocked, List<Long> notFound) {
+        Set<Long> existing = new HashSet<>(userRepo.findExistingIds(chunk));
+        // Expense writers hold the group row from before their insert until commit (an If-Match writer from its
+        // version check at commit), so none can name these users between the check and the deletes unnoticed
+        List<Long> memberOf = existing.isEmpty() ? List.of() : groupRepo.findGroupIdsByMemberIds(existing);
+        if (!memberOf.isEmpty()) groupRepo.lockByIds(memberOf);
+        Set<Long> active = new HashSet<>(expenseRepo.findActivePayerIds(existing));
+        active.addAll(splitRepo.findActiveParticipantIds(existing));
+
+        List<Long> ids = new ArrayList<>();
+        for (Long id : chunk) {
+            if (!existing.contains(id)) notFound.add(id);
+            else if (active.contains(id)) blocked.add(id);
+            else ids.add(id);
+        }
+        if (ids.isEmpty()) return;
+
+        List<Long> groupIds = groupRepo.findGroupIdsByMemberIds(ids);
+        splitRepo.deleteByUserIds(ids);
+        expenseRepo.detachPayers(ids);
+        archiveRepo.deleteSplitsByUserIds(ids);
+        archiveRepo.detachPayers(ids);
+        balanceRepo.deleteByUserIds(ids);
+        spendRepo.deleteByUserIds(ids);
+        List<Long> templateIds = recurringRepo.findIdsByUserIds(ids);
+        if (!templateIds.isEmpty()) {
+            recurringRepo.deleteSplitsByIds(templateIds);
+            recurringRepo.deleteByIds(templateIds);
+        }
+        groupRepo.removeMemberships(ids);
+        userRepo.deleteByIds(ids);
+        if (!groupIds.isEmpty()) groupRepo.bumpVersions(groupIds);
+        for (GroupEntity g : groupRepo.findAllById(groupIds)) {
+            events.publish(GroupEventDto.GROUP_UPDATED, g.id, g.version);
+        }
+        deleted.addAll(ids);
+    }
+}
@@ -0,0 +1,134 @@
+package com.expensetracker.backend.service.search;
+
+import com.expensetracker.backend.dto.UserDto;
+import com.expensetracker.backend.repo.UserRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix index over the lower-cased name words and email of every user. Unlike the trigram
+ * search it only matches from the start of a word, which is what the member picker needs.
+ * Results come back in key order, so exact matches precede longer completions.
+ */
+@Service
+@ConditionalOnProperty(name = "app.user-search", havingValue = "trie")
+public class TrieUserSearch implements UserSearch {
+
+    private static final class Node {
+        final TreeMap<Character, Node> children = new TreeMap<>();
+        final Set<Long> userIds = new LinkedHashSet<>();
+    }
+
+    private final UserRepository userRepo;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<Long, UserDto> users = new HashMap<>();
+
+    public TrieUserSearch(UserRepository userRepo) {
+        this.userRepo = userRepo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        userRepo.findAll().forEach(u -> indexed(new UserDto(u.id, u.name, u.email)));
+    }
+
+    @Override
+    public List<UserDto> search(String q, int limit, int offset) {
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (char c : q.toLowerCase(Locale.ROOT).toCharArray()) {
+                node = node.children.get(c);
+                if (node == null) return List.of();
+            }
+            // Only walk as far as the requested page; a user reachable by several keys counts once
+            Set<Long> ids = new LinkedHashSet<>();
+            collect(node, ids, offset + limit);
+            return ids.stream().skip(offset).map(users::get).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void indexed(UserDto user) {
+        lock.writeLock().lock();
+        try {
+            UserDto previous = users.put(user.id, user);
+            if (previous != null) unindex(previous);
+            for (String key : keys(user)) {
+                Node node = root;
+                for (char c : key.toCharArray()) {
+                    node = node.children.computeIfAbsent(c, k -> new Node());
+                }
+                node.userIds.add(user.id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removed(Collection<Long> userIds) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : userIds) {
+                UserDto user = users.remove(id);
+                if (user != null) unindex(user);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void unindex(UserDto user) {
+        for (String key : keys(user)) {
+            remove(root, key, 0, user.id);
+        }
+    }
+
+    // Returns true when the child became empty and can be pruned
+    private boolean remove(Node node, String key, int depth, long userId) {
+        if (depth == key.length()) {
+            node.userIds.remove(userId);
+        } else {
+            Node child = node.children.get(key.charAt(depth));
+            if (child != null && remove(child, key, depth + 1, userId)) {
+                node.children.remove(key.charAt(depth));
+            }
+        }
+        return node.userIds.isEmpty() && node.children.isEmpty();
+    }
+
+    private static void collect(Node node, Set<Long> into, int max) {
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty() && into.size() < max) {
+            Node n = stack.pop();
+            for (Long id : n.userIds) {
+                into.add(id);
+                if (into.size() == max) return;
+            }
+            // Push in reverse so children are visited in ascending character order
+            for (Node child : n.children.descendingMap().values()) stack.push(child);
+        }
+    }
+
+    private static List<String> keys(UserDto user) {
+        List<String> keys = new ArrayList<>();
+        if (user.name != null) {
+            for (String word : user.name.toLowerCase(Locale.ROOT).split("\\s+")) {
+                if (!word.isEmpty()) keys.add(word);
+            }
+        }
+        if (user.email != null && !user.email.isBlank()) keys.add(user.email.toLowerCase(Locale.ROOT).trim());
+        return keys;
+    }
+}
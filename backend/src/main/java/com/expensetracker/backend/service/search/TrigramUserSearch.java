@@ -0,0 +1,29 @@
+package com.expensetracker.backend.service.search;
+
+import com.expensetracker.backend.dto.UserDto;
+import com.expensetracker.backend.repo.UserRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+
+@Service
+@ConditionalOnProperty(name = "app.user-search", havingValue = "trgm", matchIfMissing = true)
+public class TrigramUserSearch implements UserSearch {
+
+    private final UserRepository userRepo;
+
+    public TrigramUserSearch(UserRepository userRepo) {
+        this.userRepo = userRepo;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDto> search(String q, int limit, int offset) {
+        String lower = q.toLowerCase(Locale.ROOT);
+        String escaped = lower.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return userRepo.search(lower, "%" + escaped + "%", escaped + "%", limit, offset);
+    }
+}
@@ -0,0 +1,23 @@
+package com.expensetracker.backend.service.search;
+
+import com.expensetracker.backend.dto.UserDto;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Case-insensitive user lookup by name or email for the member picker. Selected with
+ * app.user-search: "trgm" (default) queries Postgres, "trie" keeps an in-memory prefix index
+ * for profiles running without pg_trgm.
+ */
+public interface UserSearch {
+
+    List<UserDto> search(String q, int limit, int offset);
+
+    // Write paths report changes so implementations holding their own index stay current
+    default void indexed(UserDto user) {
+    }
+
+    default void removed(Collection<Long> userIds) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.expensetracker.backend.service.settlement;
+
+import com.expensetracker.backend.dto.DebtDto;
+import com.expensetracker.backend.util.LongLongMap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Matches the largest creditor with the largest debtor until both sides are exhausted
+@Component
+public class GreedySettlement implements SettlementStrategy {
+
+    @Override
+    public String name() {
+        return "greedy";
+    }
+
+    @Override
+    public List<DebtDto> plan(LongLongMap net) {
+        List<DebtDto> out = new ArrayList<>();
+        match(net, out);
+        return out;
+    }
+
+    static void match(LongLongMap net, List<DebtDto> out) {
+        // {userId, cents} pairs; creditors largest first, debtors most negative first
+        List<long[]> creditors = new ArrayList<>();
+        List<long[]> debtors = new ArrayList<>();
+        for (int k = 0; k < net.size(); k++) {
+            long val = net.valueAt(k);
+            if (val > 0) creditors.add(new long[]{net.keyAt(k), val});
+            else if (val < 0) debtors.add(new long[]{net.keyAt(k), val});
+        }
+        creditors.sort((a, b) -> Long.compare(b[1], a[1]));
+        debtors.sort((a, b) -> Long.compare(a[1], b[1]));
+
+        int i = 0, j = 0;
+        while (i < creditors.size() && j < debtors.size()) {
+            long[] cred = creditors.get(i);
+            long[] debt = debtors.get(j);
+            long pay = Math.min(cred[1], -debt[1]);
+            if (pay > 0) out.add(new DebtDto(debt[0], cred[0], pay));
+            cred[1] -= pay;
+            debt[1] += pay;
+            if (cred[1] == 0) i++;
+            if (debt[1] == 0) j++;
+        }
+    }
+}
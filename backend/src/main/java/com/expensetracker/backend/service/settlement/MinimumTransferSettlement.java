@@ -0,0 +1,76 @@
+package com.expensetracker.backend.service.settlement;
+
+import com.expensetracker.backend.dto.DebtDto;
+import com.expensetracker.backend.util.LongLongMap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exact minimum number of transfers. Splitting the non-zero members into as many disjoint
+ * zero-sum subsets as possible is optimal: a subset of k members settles in k - 1 transfers.
+ * The subset DP is O(2^n * n) time and O(2^n) memory, so it is limited to {@link #MAX_MEMBERS}.
+ */
+@Component
+public class MinimumTransferSettlement implements SettlementStrategy {
+
+    public static final int MAX_MEMBERS = 20;
+
+    @Override
+    public String name() {
+        return "exact";
+    }
+
+    @Override
+    public List<DebtDto> plan(LongLongMap net) {
+        LongLongMap open = new LongLongMap(net.size());
+        for (int k = 0; k < net.size(); k++) {
+            if (net.valueAt(k) != 0) open.put(net.keyAt(k), net.valueAt(k));
+        }
+        int n = open.size();
+        if (n > MAX_MEMBERS) {
+            throw new IllegalArgumentException("Exact settlement supports at most " + MAX_MEMBERS + " unsettled members, got " + n);
+        }
+        List<DebtDto> out = new ArrayList<>();
+        if (n == 0) return out;
+
+        int full = (1 << n) - 1;
+        long[] sum = new long[full + 1];
+        // zeroSets[mask]: most zero-sum blocks the members of mask can be cut into, in some order
+        byte[] zeroSets = new byte[full + 1];
+        for (int mask = 1; mask <= full; mask++) {
+            int low = Integer.numberOfTrailingZeros(mask);
+            sum[mask] = sum[mask & (mask - 1)] + open.valueAt(low);
+            int best = 0;
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                int without = mask ^ Integer.lowestOneBit(rest);
+                if (zeroSets[without] > best) best = zeroSets[without];
+            }
+            zeroSets[mask] = (byte) (best + (sum[mask] == 0 ? 1 : 0));
+        }
+
+        // Walk back from the full set; members removed between two zero-sum states form one block
+        LongLongMap block = new LongLongMap();
+        int mask = full;
+        while (mask != 0) {
+            if (sum[mask] == 0 && !block.isEmpty()) {
+                GreedySettlement.match(block, out);
+                block = new LongLongMap();
+            }
+            int target = zeroSets[mask] - (sum[mask] == 0 ? 1 : 0);
+            int pick = Integer.numberOfTrailingZeros(mask);
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                int i = Integer.numberOfTrailingZeros(rest);
+                if (zeroSets[mask ^ (1 << i)] == target) {
+                    pick = i;
+                    break;
+                }
+            }
+            block.put(open.keyAt(pick), open.valueAt(pick));
+            mask ^= 1 << pick;
+        }
+        GreedySettlement.match(block, out);
+        return out;
+    }
+}
@@ -0,0 +1,50 @@
+package com.expensetracker.backend.service.settlement;
+
+import com.expensetracker.backend.dto.DebtDto;
+import com.expensetracker.backend.util.LongLongMap;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * O(n log n) heuristic for groups too large for the exact solver: first settles every creditor
+ * whose balance exactly cancels a debtor's with a single transfer, then greedily matches the rest.
+ */
+@Component
+public class PairingSettlement implements SettlementStrategy {
+
+    @Override
+    public String name() {
+        return "heuristic";
+    }
+
+    @Override
+    public List<DebtDto> plan(LongLongMap net) {
+        Map<Long, Deque<Long>> debtorsByAmount = new HashMap<>();
+        for (int k = 0; k < net.size(); k++) {
+            if (net.valueAt(k) < 0) {
+                debtorsByAmount.computeIfAbsent(-net.valueAt(k), a -> new ArrayDeque<>()).add(net.keyAt(k));
+            }
+        }
+
+        List<DebtDto> out = new ArrayList<>();
+        Set<Long> paired = new HashSet<>();
+        for (int k = 0; k < net.size(); k++) {
+            long amount = net.valueAt(k);
+            if (amount <= 0) continue;
+            Deque<Long> debtors = debtorsByAmount.get(amount);
+            if (debtors == null || debtors.isEmpty()) continue;
+            long debtor = debtors.poll();
+            out.add(new DebtDto(debtor, net.keyAt(k), amount));
+            paired.add(debtor);
+            paired.add(net.keyAt(k));
+        }
+
+        LongLongMap rest = new LongLongMap(net.size() - paired.size());
+        for (int k = 0; k < net.size(); k++) {
+            if (net.valueAt(k) != 0 && !paired.contains(net.keyAt(k))) rest.put(net.keyAt(k), net.valueAt(k));
+        }
+        GreedySettlement.match(rest, out);
+        return out;
+    }
+}
@@ -0,0 +1,52 @@
+package com.expensetracker.backend.service.settlement;
+
+import com.expensetracker.backend.dto.DebtDto;
+import com.expensetracker.backend.util.LongLongMap;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class SettlementPlanner {
+
+    public static final String AUTO = "auto";
+
+    // "auto" stays on the exact solver while it is well under a millisecond
+    static final int AUTO_EXACT_LIMIT = 16;
+
+    private final Map<String, SettlementStrategy> strategies = new LinkedHashMap<>();
+    private final SettlementStrategy exact;
+    private final SettlementStrategy heuristic;
+
+    public SettlementPlanner(List<SettlementStrategy> strategies) {
+        for (SettlementStrategy s : strategies) this.strategies.put(s.name(), s);
+        this.exact = this.strategies.get("exact");
+        this.heuristic = this.strategies.get("heuristic");
+    }
+
+    // Every value ?strategy= accepts, "auto" included
+    public List<String> strategyNames() {
+        List<String> names = new ArrayList<>(strategies.keySet());
+        names.add(AUTO);
+        return names;
+    }
+
+    public List<DebtDto> plan(String strategy, LongLongMap net) {
+        return resolve(strategy, net).plan(net);
+    }
+
+    private SettlementStrategy resolve(String strategy, LongLongMap net) {
+        String name = strategy == null ? AUTO : strategy.toLowerCase();
+        if (name.equals(AUTO)) {
+            int open = 0;
+            for (int k = 0; k < net.size(); k++) if (net.valueAt(k) != 0) open++;
+            return open <= AUTO_EXACT_LIMIT ? exact : heuristic;
+        }
+        SettlementStrategy s = strategies.get(name);
+        if (s == null) throw new IllegalArgumentException("Unknown settlement strategy: " + strategy);
+        return s;
+    }
+}
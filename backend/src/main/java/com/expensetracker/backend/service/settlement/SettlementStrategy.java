@@ -0,0 +1,17 @@
+package com.expensetracker.backend.service.settlement;
+
+import com.expensetracker.backend.dto.DebtDto;
+import com.expensetracker.backend.util.LongLongMap;
+
+import java.util.List;
+
+/**
+ * Turns net positions (userId -> cents, summing to zero) into a list of transfers that settles them.
+ */
+public interface SettlementStrategy {
+
+    // Value accepted by ?strategy= on the balances endpoint
+    String name();
+
+    List<DebtDto> plan(LongLongMap net);
+}
@@ -0,0 +1,24 @@
+package com.expensetracker.backend.util;
+
+import com.expensetracker.backend.entity.GroupEntity;
+import com.expensetracker.backend.entity.UserEntity;
+import org.hibernate.proxy.HibernateProxy;
+
+/**
+ * Ids of entity references that may still be lazy proxies. Entities expose public fields, and the
+ * fields of an uninitialized Hibernate proxy are never populated, so proxy.id reads null. The id is
+ * taken from the proxy's initializer instead, which needs no query.
+ */
+public final class EntityIds {
+
+    private EntityIds() {
+    }
+
+    public static Long of(UserEntity u) {
+        return u instanceof HibernateProxy p ? (Long) p.getHibernateLazyInitializer().getIdentifier() : u.id;
+    }
+
+    public static Long of(GroupEntity g) {
+        return g instanceof HibernateProxy p ? (Long) p.getHibernateLazyInitializer().getIdentifier() : g.id;
+    }
+}
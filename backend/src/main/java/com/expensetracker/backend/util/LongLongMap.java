@@ -0,0 +1,121 @@
+package com.expensetracker.backend.util;
+
+import java.util.Arrays;
+
+/**
+ * Insertion-ordered map from long keys to long values without boxing. Used for per-user balance
+ * aggregation, where a HashMap&lt;Long, Double&gt; allocates on every update. Entries cannot be removed.
+ */
+public final class LongLongMap {
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    // Open-addressing index into keys/values; 0 marks an empty slot, otherwise position + 1
+    private int[] slots;
+
+    public LongLongMap() {
+        this(16);
+    }
+
+    public LongLongMap(int expectedSize) {
+        int capacity = Math.max(4, expectedSize);
+        keys = new long[capacity];
+        values = new long[capacity];
+        slots = new int[tableSizeFor(capacity)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long keyAt(int index) {
+        return keys[index];
+    }
+
+    public long valueAt(int index) {
+        return values[index];
+    }
+
+    public boolean containsKey(long key) {
+        return indexOf(key) >= 0;
+    }
+
+    public long get(long key) {
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : 0L;
+    }
+
+    public void put(long key, long value) {
+        int index = insert(key);
+        values[index] = value;
+    }
+
+    public void add(long key, long delta) {
+        int index = insert(key);
+        values[index] += delta;
+    }
+
+    public void addAll(LongLongMap other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.keys[i], other.values[i]);
+        }
+    }
+
+    private int indexOf(long key) {
+        int mask = slots.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) return -1;
+            if (keys[entry - 1] == key) return entry - 1;
+        }
+    }
+
+    private int insert(long key) {
+        int mask = slots.length - 1;
+        int slot = hash(key) & mask;
+        for (; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) break;
+            if (keys[entry - 1] == key) return entry - 1;
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = key;
+        values[size] = 0L;
+        size++;
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        } else {
+            slots[slot] = size;
+        }
+        return size - 1;
+    }
+
+    private void rehash(int tableSize) {
+        slots = new int[tableSize];
+        int mask = tableSize - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hash(keys[i]) & mask;
+            while (slots[slot] != 0) slot = (slot + 1) & mask;
+            slots[slot] = i + 1;
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        return Math.max(8, n);
+    }
+}
@@ -0,0 +1,35 @@
+package com.expensetracker.backend.util;
+
+/**
+ * Amounts are held as a primitive long count of minor units (cents). Decimal values only exist at
+ * the API boundary, where requests are converted in and responses are converted out.
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    public static long toCents(double amount) {
+        return Math.round(amount * 100.0);
+    }
+
+    public static double toAmount(long cents) {
+        return cents / 100.0;
+    }
+
+    /**
+     * Splits total into n shares that differ by at most one cent and always sum to total. The first
+     * (total mod n) shares carry the extra cent; the division is floored, so for a negative total the
+     * shares are rounded down and the first ones are the ones nearer zero.
+     */
+    public static long[] splitEvenly(long total, int n) {
+        if (n <= 0) throw new IllegalArgumentException("Cannot split between " + n + " shares");
+        long base = Math.floorDiv(total, n);
+        long remainder = Math.floorMod(total, n);
+        long[] shares = new long[n];
+        for (int i = 0; i < n; i++) {
+            shares[i] = base + (i < remainder ? 1 : 0);
+        }
+        return shares;
+    }
+}
@@ -0,0 +1,2 @@
+-- The recurring scheduler also looks up settled periods, so a re-posted schedule skips them
+create index idx_expense_archive_recurring_period on expense_archive (recurring_id, recurring_period);
@@ -0,0 +1,88 @@
+-- Schema as hibernate ddl-auto=update left it. Written to be re-runnable so that databases created
+-- by ddl-auto (baselined at version 0) converge on it: missing tables, columns and indexes are added,
+-- existing ones are left alone. Legacy floating-point amount columns are not created here; where
+-- they still exist the cent columns are filled from them at the end, before any later migration
+-- reads amounts.
+
+create table if not exists users (
+    id bigint generated by default as identity primary key,
+    email varchar(255),
+    name varchar(255)
+);
+
+create table if not exists groups (
+    id bigint generated by default as identity primary key,
+    name varchar(255),
+    open_balances integer,
+    version bigint default 0
+);
+alter table groups add column if not exists open_balances integer;
+alter table groups add column if not exists version bigint default 0;
+update groups set version = 0 where version is null;
+
+create table if not exists group_members (
+    group_id bigint not null references groups (id),
+    user_id bigint not null references users (id),
+    primary key (group_id, user_id)
+);
+create index if not exists idx_group_members_user on group_members (user_id);
+
+-- Pooled ids: Hibernate hands out 50 ids per nextval, which is what lets it batch inserts. ddl-auto
+-- made these id columns identities, whose sequences schema validation does not see; they become
+-- plain columns and the standalone sequence starts past the ids already used.
+create table if not exists expenses (
+    id bigint primary key,
+    amount_cents bigint,
+    archived boolean,
+    description varchar(255),
+    group_id bigint references groups (id),
+    paid_by_user_id bigint references users (id)
+);
+alter table expenses alter column id drop identity if exists;
+create sequence if not exists expenses_id_seq increment by 50;
+alter sequence expenses_id_seq increment by 50;
+select setval('expenses_id_seq', coalesce((select max(id) from expenses), 0) + 50);
+alter table expenses add column if not exists amount_cents bigint;
+alter table expenses add column if not exists archived boolean;
+create index if not exists idx_expenses_group_archived_id on expenses (group_id, archived, id);
+create index if not exists idx_expenses_paid_by on expenses (paid_by_user_id);
+
+create table if not exists expense_splits (
+    id bigint primary key,
+    amount_owed_cents bigint,
+    expense_id bigint not null references expenses (id),
+    user_id bigint not null references users (id)
+);
+alter table expense_splits alter column id drop identity if exists;
+create sequence if not exists expense_splits_id_seq increment by 50;
+alter sequence expense_splits_id_seq increment by 50;
+select setval('expense_splits_id_seq', coalesce((select max(id) from expense_splits), 0) + 50);
+alter table expense_splits add column if not exists amount_owed_cents bigint;
+create index if not exists idx_expense_splits_user on expense_splits (user_id);
+
+create table if not exists group_balances (
+    id bigint generated by default as identity primary key,
+    group_id bigint not null,
+    user_id bigint not null,
+    net_cents bigint,
+    constraint uk_group_balances_group_user unique (group_id, user_id)
+);
+alter table group_balances add column if not exists net_cents bigint;
+
+-- Databases from before money moved to integer cents. V8 then rebuilds the ledger from the expenses.
+do $$
+begin
+    if exists (select 1 from information_schema.columns
+               where table_schema = current_schema() and table_name = 'expenses' and column_name = 'amount') then
+        execute 'update expenses set amount_cents = round(amount * 100) where amount_cents is null and amount is not null';
+    end if;
+    if exists (select 1 from information_schema.columns
+               where table_schema = current_schema() and table_name = 'expense_splits' and column_name = 'amount_owed') then
+        execute 'update expense_splits set amount_owed_cents = round(amount_owed * 100) ' ||
+                'where amount_owed_cents is null and amount_owed is not null';
+    end if;
+    if exists (select 1 from information_schema.columns
+               where table_schema = current_schema() and table_name = 'group_balances' and column_name = 'net') then
+        execute 'update group_balances set net_cents = round(net * 100) where net_cents is null and net is not null';
+    end if;
+end $$;
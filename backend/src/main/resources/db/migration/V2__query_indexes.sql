@@ -0,0 +1,34 @@
+-- Indexes for the lookups every request path makes. The expenses listing and ledger reads are
+-- already served by idx_expenses_group_archived_id and uk_group_balances_group_user.
+
+-- Splits are always fetched or aggregated by their expense (details graph, ledger verify/rebuild,
+-- delete); the included columns let those aggregations run as index-only scans
+create index if not exists idx_expense_splits_expense on expense_splits (expense_id) include (user_id, amount_owed_cents);
+
+-- Trigram indexes serve the ILIKE '%q%' user search on both name and email
+create extension if not exists pg_trgm;
+create index if not exists idx_users_name_trgm on users using gin (name gin_trgm_ops);
+create index if not exists idx_users_email_trgm on users using gin (email gin_trgm_ops);
+
+-- Login looks users up by email; also rejects a second account for the same address. Databases
+-- from before this may already hold such accounts, which the index cannot be built over: the
+-- migration then fails listing them, and nothing is merged or renamed automatically. Once an
+-- operator has changed or removed the extra accounts, the next start runs it again.
+do $$
+declare
+    conflicts text;
+begin
+    select string_agg(format('%s (users %s)', address, ids), '; ' order by address) into conflicts
+    from (
+        select lower(email) as address, string_agg(id::text, ', ' order by id) as ids
+        from users
+        where email is not null
+        group by lower(email)
+        having count(*) > 1
+    ) d;
+    if conflicts is not null then
+        raise exception 'Cannot create idx_users_email_lower, these addresses belong to more than one user '
+            '(compared case-insensitively): %', conflicts;
+    end if;
+end $$;
+create unique index if not exists idx_users_email_lower on users (lower(email));
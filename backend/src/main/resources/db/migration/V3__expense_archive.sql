@@ -0,0 +1,43 @@
+-- Settled expenses and their splits move here when a group settles up, so the active tables only
+-- hold unsettled rows. batch numbers the settle-ups of a group (groups.archive_batches); clear-old
+-- hides every batch up to groups.cleared_batches at once and the rows are purged in the background.
+-- No foreign keys: history outlives deleted users and groups until the purge removes it.
+
+alter table groups add column if not exists archive_batches bigint not null default 0;
+alter table groups add column if not exists cleared_batches bigint not null default 0;
+
+create table expense_archive (
+    id bigint primary key,
+    group_id bigint not null,
+    paid_by_user_id bigint,
+    amount_cents bigint,
+    description varchar(255),
+    batch bigint not null
+);
+create index idx_expense_archive_group_id on expense_archive (group_id, id);
+create index idx_expense_archive_group_batch on expense_archive (group_id, batch);
+create index idx_expense_archive_paid_by on expense_archive (paid_by_user_id);
+
+create table expense_split_archive (
+    id bigint primary key,
+    expense_id bigint not null,
+    group_id bigint not null,
+    user_id bigint,
+    amount_owed_cents bigint,
+    batch bigint not null
+);
+create index idx_expense_split_archive_expense on expense_split_archive (expense_id);
+create index idx_expense_split_archive_group_batch on expense_split_archive (group_id, batch);
+create index idx_expense_split_archive_user on expense_split_archive (user_id);
+
+-- History archived in place so far becomes the first batch of its group
+insert into expense_split_archive (id, expense_id, group_id, user_id, amount_owed_cents, batch)
+select s.id, s.expense_id, e.group_id, s.user_id, s.amount_owed_cents, 1
+from expense_splits s join expenses e on e.id = s.expense_id
+where e.archived and e.group_id is not null;
+insert into expense_archive (id, group_id, paid_by_user_id, amount_cents, description, batch)
+select id, group_id, paid_by_user_id, amount_cents, description, 1
+from expenses where archived and group_id is not null;
+update groups g set archive_batches = 1 where exists (select 1 from expense_archive a where a.group_id = g.id);
+delete from expense_splits s using expenses e where e.id = s.expense_id and e.archived and e.group_id is not null;
+delete from expenses where archived and group_id is not null;
@@ -0,0 +1,29 @@
+-- Pairwise balances per user: what counterparty_id owes user_id in group_id over the group's active
+-- expenses, stored from both sides and only while non-zero. Kept current by the same transactions
+-- that maintain group_balances; backfilled here from the active expenses.
+
+create table user_balances (
+    id bigint generated by default as identity primary key,
+    user_id bigint not null,
+    counterparty_id bigint not null,
+    group_id bigint not null,
+    net_cents bigint not null,
+    constraint uk_user_balances_user_counterparty_group unique (user_id, counterparty_id, group_id)
+);
+create index idx_user_balances_group on user_balances (group_id);
+
+insert into user_balances (user_id, counterparty_id, group_id, net_cents)
+select user_id, counterparty_id, group_id, sum(cents)
+from (
+    select e.paid_by_user_id as user_id, s.user_id as counterparty_id, e.group_id, s.amount_owed_cents as cents
+    from expense_splits s join expenses e on e.id = s.expense_id
+    where e.archived = false and e.group_id is not null and e.paid_by_user_id is not null
+      and s.user_id is not null and s.user_id <> e.paid_by_user_id and s.amount_owed_cents is not null
+    union all
+    select s.user_id, e.paid_by_user_id, e.group_id, -s.amount_owed_cents
+    from expense_splits s join expenses e on e.id = s.expense_id
+    where e.archived = false and e.group_id is not null and e.paid_by_user_id is not null
+      and s.user_id is not null and s.user_id <> e.paid_by_user_id and s.amount_owed_cents is not null
+) d
+group by user_id, counterparty_id, group_id
+having sum(cents) <> 0;
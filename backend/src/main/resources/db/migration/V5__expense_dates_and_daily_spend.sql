@@ -0,0 +1,57 @@
+-- When each expense was recorded, the optional day it was incurred on, and whether it is a settle-up
+-- transfer rather than spending. Rows that predate created_at get the migration time; settlements
+-- are recognised by the single full-amount split to another member that settle-up writes.
+
+alter table expenses add column created_at timestamp(6) with time zone not null default now();
+alter table expenses add column incurred_on date;
+alter table expenses add column settlement boolean not null default false;
+alter table expense_archive add column created_at timestamp(6) with time zone not null default now();
+alter table expense_archive add column incurred_on date;
+alter table expense_archive add column settlement boolean not null default false;
+
+update expenses e set settlement = true
+where e.description = 'Settlement'
+  and (select count(*) from expense_splits s where s.expense_id = e.id) = 1
+  and exists (select 1 from expense_splits s where s.expense_id = e.id
+              and s.amount_owed_cents = e.amount_cents and s.user_id <> e.paid_by_user_id);
+update expense_archive e set settlement = true
+where e.description = 'Settlement'
+  and (select count(*) from expense_split_archive s where s.expense_id = e.id) = 1
+  and exists (select 1 from expense_split_archive s where s.expense_id = e.id
+              and s.amount_owed_cents = e.amount_cents and s.user_id <> e.paid_by_user_id);
+
+-- Per (group, day, member) spending: what the member paid and their share of the splits. Kept
+-- current by expense writes and the archive purge; analytics buckets are folded from these rows.
+create table daily_spend (
+    id bigint generated by default as identity primary key,
+    group_id bigint not null,
+    spent_on date not null,
+    user_id bigint not null,
+    paid_cents bigint not null,
+    share_cents bigint not null,
+    constraint uk_daily_spend_group_day_user unique (group_id, spent_on, user_id)
+);
+create index idx_daily_spend_user on daily_spend (user_id);
+
+insert into daily_spend (group_id, spent_on, user_id, paid_cents, share_cents)
+select x.group_id, x.spent_on, x.user_id, sum(x.paid), sum(x.share)
+from (
+    select e.group_id, cast(e.created_at at time zone 'UTC' as date) as spent_on, e.paid_by_user_id as user_id,
+           e.amount_cents as paid, 0 as share
+    from expenses e
+    where not e.settlement and e.paid_by_user_id is not null and e.amount_cents is not null
+    union all
+    select e.group_id, cast(e.created_at at time zone 'UTC' as date), s.user_id, 0, s.amount_owed_cents
+    from expense_splits s join expenses e on e.id = s.expense_id
+    where not e.settlement and s.user_id is not null and s.amount_owed_cents is not null
+    union all
+    select e.group_id, cast(e.created_at at time zone 'UTC' as date), e.paid_by_user_id, e.amount_cents, 0
+    from expense_archive e
+    where not e.settlement and e.paid_by_user_id is not null and e.amount_cents is not null
+    union all
+    select e.group_id, cast(e.created_at at time zone 'UTC' as date), s.user_id, 0, s.amount_owed_cents
+    from expense_split_archive s join expense_archive e on e.id = s.expense_id
+    where not e.settlement and s.user_id is not null and s.amount_owed_cents is not null
+) x
+join groups g on g.id = x.group_id
+group by x.group_id, x.spent_on, x.user_id;
@@ -0,0 +1,40 @@
+-- Append-only log of per-member balance deltas and periodic per-group checkpoints of net positions,
+-- for balances as of a past time. groups.pending_events counts log rows not yet in a checkpoint.
+
+alter table groups add column pending_events integer not null default 0;
+
+create table balance_events (
+    id bigint generated by default as identity primary key,
+    group_id bigint not null,
+    occurred_at timestamp(6) with time zone not null,
+    kind varchar(32) not null,
+    expense_id bigint,
+    user_id bigint not null,
+    delta_cents bigint not null
+);
+create index idx_balance_events_group_id on balance_events (group_id, id);
+
+create table balance_checkpoints (
+    id bigint generated by default as identity primary key,
+    group_id bigint not null,
+    event_id bigint not null,
+    as_of timestamp(6) with time zone not null,
+    baseline boolean not null
+);
+create index idx_balance_checkpoints_group_as_of on balance_checkpoints (group_id, as_of);
+
+create table balance_checkpoint_positions (
+    id bigint generated by default as identity primary key,
+    checkpoint_id bigint not null,
+    user_id bigint not null,
+    net_cents bigint not null
+);
+create index idx_balance_checkpoint_positions_checkpoint on balance_checkpoint_positions (checkpoint_id);
+
+-- Earlier history was never logged: existing groups start from a baseline of their current ledger
+insert into balance_checkpoints (group_id, event_id, as_of, baseline)
+select id, 0, now(), true from groups;
+insert into balance_checkpoint_positions (checkpoint_id, user_id, net_cents)
+select c.id, b.user_id, b.net_cents
+from balance_checkpoints c join group_balances b on b.group_id = c.group_id
+where b.net_cents <> 0;
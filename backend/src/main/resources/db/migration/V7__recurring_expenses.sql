@@ -0,0 +1,49 @@
+-- Recurring expense templates. next_run_at is the next period the scheduler has not posted yet;
+-- it advances in the same transaction that inserts the period's expense.
+create table recurring_expenses (
+    id bigint generated by default as identity primary key,
+    group_id bigint not null,
+    paid_by_user_id bigint not null,
+    amount_cents bigint not null,
+    description varchar(255) not null,
+    split_type varchar(16) not null,
+    cron varchar(120) not null,
+    time_zone varchar(64) not null,
+    next_run_at timestamp(6) with time zone not null
+);
+-- Due templates are claimed in (next_run_at, group_id) order, so a group's templates land in one chunk
+create index idx_recurring_expenses_next_run on recurring_expenses (next_run_at, group_id);
+create index idx_recurring_expenses_group on recurring_expenses (group_id);
+
+-- Fixed shares of CUSTOM templates
+create table recurring_expense_splits (
+    template_id bigint not null,
+    user_id bigint not null,
+    amount_cents bigint not null,
+    primary key (template_id, user_id)
+);
+
+-- Generated expenses carry their template and period; the unique key rejects a second posting
+alter table expenses add column recurring_id bigint;
+alter table expenses add column recurring_period timestamp(6) with time zone;
+create unique index uk_expenses_recurring_period on expenses (recurring_id, recurring_period);
+alter table expense_archive add column recurring_id bigint;
+alter table expense_archive add column recurring_period timestamp(6) with time zone;
+
+-- The ledger and rollup tables move to pooled sequences so new rows are batch inserted like expenses,
+-- which matters when the scheduler opens balances in thousands of groups at once. Hibernate takes
+-- each value as the top of a block of 50, hence the start one block past the existing ids.
+alter table group_balances alter column id drop identity;
+create sequence group_balances_id_seq increment by 50;
+select setval('group_balances_id_seq', coalesce((select max(id) from group_balances), 0) + 50);
+alter table group_balances alter column id set default nextval('group_balances_id_seq');
+
+alter table user_balances alter column id drop identity;
+create sequence user_balances_id_seq increment by 50;
+select setval('user_balances_id_seq', coalesce((select max(id) from user_balances), 0) + 50);
+alter table user_balances alter column id set default nextval('user_balances_id_seq');
+
+alter table daily_spend alter column id drop identity;
+create sequence daily_spend_id_seq increment by 50;
+select setval('daily_spend_id_seq', coalesce((select max(id) from daily_spend), 0) + 50);
+alter table daily_spend alter column id set default nextval('daily_spend_id_seq');
@@ -0,0 +1,45 @@
+-- Ledger rows of groups whose expenses predate group_balances (databases baselined from ddl-auto)
+-- are filled in from the active expenses, as POST /admin/groups/{id}/balances/rebuild would do.
+-- Each difference is logged as a correction so replayed history matches the ledger, and the
+-- affected groups get a new version so cached ETags no longer match.
+
+create temporary table ledger_fix on commit drop as
+select coalesce(a.group_id, b.group_id) as group_id,
+       coalesce(a.user_id, b.user_id) as user_id,
+       coalesce(a.net_cents, 0) as net_cents,
+       coalesce(a.net_cents, 0) - coalesce(b.net_cents, 0) as delta_cents,
+       b.id is not null as stored
+from (
+    select group_id, user_id, sum(cents) as net_cents
+    from (
+        select e.group_id, e.paid_by_user_id as user_id, e.amount_cents as cents
+        from expenses e
+        where e.archived = false and e.group_id is not null
+          and e.paid_by_user_id is not null and e.amount_cents is not null
+        union all
+        select e.group_id, s.user_id, -s.amount_owed_cents
+        from expense_splits s join expenses e on e.id = s.expense_id
+        where e.archived = false and e.group_id is not null and s.amount_owed_cents is not null
+    ) d
+    group by group_id, user_id
+) a
+full join group_balances b on b.group_id = a.group_id and b.user_id = a.user_id
+where coalesce(a.net_cents, 0) <> coalesce(b.net_cents, 0)
+  and coalesce(a.group_id, b.group_id) in (select id from groups);
+
+insert into balance_events (group_id, occurred_at, kind, expense_id, user_id, delta_cents)
+select group_id, now(), 'CORRECTED', null, user_id, delta_cents from ledger_fix order by group_id, user_id;
+
+update group_balances b set net_cents = f.net_cents
+from ledger_fix f
+where f.stored and b.group_id = f.group_id and b.user_id = f.user_id;
+
+insert into group_balances (group_id, user_id, net_cents)
+select group_id, user_id, net_cents from ledger_fix where not stored;
+
+update groups g set
+    pending_events = g.pending_events + f.events,
+    open_balances = (select count(*) from group_balances b where b.group_id = g.id and b.net_cents <> 0),
+    version = coalesce(g.version, 0) + 1
+from (select group_id, count(*) as events from ledger_fix group by group_id) f
+where g.id = f.group_id;
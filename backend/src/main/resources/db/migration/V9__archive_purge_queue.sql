@@ -0,0 +1,17 @@
+-- Groups with archived batches waiting for the background purge, so the purge reads its work from
+-- here and deletes through the (group_id, batch) indexes instead of scanning the archive for rows
+-- at or below their group's cleared watermark. through_batch is the max bigint for deleted groups.
+create table archive_purges (
+    group_id bigint primary key,
+    through_batch bigint not null
+);
+
+insert into archive_purges (group_id, through_batch)
+select g.id, g.cleared_batches from groups g
+where g.cleared_batches > 0
+  and (exists (select 1 from expense_archive a where a.group_id = g.id and a.batch <= g.cleared_batches)
+       or exists (select 1 from expense_split_archive s where s.group_id = g.id and s.batch <= g.cleared_batches))
+union all
+select o.group_id, 9223372036854775807
+from (select group_id from expense_archive union select group_id from expense_split_archive) o
+where not exists (select 1 from groups g where g.id = o.group_id);
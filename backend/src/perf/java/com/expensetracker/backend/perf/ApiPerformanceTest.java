@@ -0,0 +1,145 @@
+package com.expensetracker.backend.perf;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mixed read/write workload over the REST API with closed-loop clients. Prints latency
+ * percentiles per endpoint and the SQL statements each request issued, from the app.operation
+ * metrics. Fails on any 5xx or if a group's ledger no longer matches its expenses afterwards.
+ * <p>
+ * Tunables (system properties): perf.db, perf.clients, perf.seconds, perf.warmup, perf.groups,
+ * perf.members, perf.expenses.
+ */
+@Tag("perf")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles(resolver = PerfDatabase.Profiles.class)
+class ApiPerformanceTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PerfDatabase.register(registry);
+    }
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    MeterRegistry meters;
+
+    @Test
+    void mixedWorkload() throws Exception {
+        int clients = Integer.getInteger("perf.clients", 16);
+        int seconds = Integer.getInteger("perf.seconds", 30);
+        int warmup = Integer.getInteger("perf.warmup", 10);
+
+        ApiWorkload workload = new ApiWorkload("http://localhost:" + port);
+        long seedStart = System.nanoTime();
+        workload.seed(Integer.getInteger("perf.groups", 20), Integer.getInteger("perf.members", 8),
+                Integer.getInteger("perf.expenses", 2000), 42);
+        System.out.printf("%nseeded %d groups in %d ms (%s)%n", workload.groups().size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart), PerfDatabase.h2() ? "h2" : "postgres");
+
+        List<ApiWorkload.Endpoint> endpoints = workload.endpoints();
+        Map<String, Recorder> latencies = new LinkedHashMap<>();
+        Map<String, Map<Integer, AtomicLong>> statuses = new LinkedHashMap<>();
+        Map<String, double[]> sqlBefore = new LinkedHashMap<>();
+        for (ApiWorkload.Endpoint e : endpoints) {
+            latencies.put(e.name(), new Recorder(TimeUnit.SECONDS.toNanos(60), 3));
+            statuses.put(e.name(), new ConcurrentHashMap<>());
+            sqlBefore.put(e.name(), sqlTotals(e.operation()));
+        }
+        int totalWeight = endpoints.stream().mapToInt(ApiWorkload.Endpoint::weight).sum();
+
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmup);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(seconds);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        for (int c = 0; c < clients; c++) {
+            Random random = new Random(c);
+            Thread t = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < end) {
+                        ApiWorkload.Endpoint e = pick(endpoints, random.nextInt(totalWeight));
+                        ApiWorkload.Group g = workload.groups().get(random.nextInt(workload.groups().size()));
+                        long start = System.nanoTime();
+                        HttpResponse<String> response = workload.send(e.request().apply(random, g));
+                        long now = System.nanoTime();
+                        if (start >= measureFrom) {
+                            latencies.get(e.name()).recordValue(Math.min(now - start, TimeUnit.SECONDS.toNanos(60)));
+                            statuses.get(e.name()).computeIfAbsent(response.statusCode(), s -> new AtomicLong()).incrementAndGet();
+                        }
+                    }
+                } catch (Exception ex) {
+                    failures.add(ex);
+                }
+            }, "perf-client-" + c);
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) t.join();
+        assertTrue(failures.isEmpty(), () -> "client failed: " + failures.get(0));
+
+        System.out.printf("%n%d clients, %ds warmup + %ds measured%n", clients, warmup, seconds);
+        System.out.printf("%-14s %8s %8s %8s %8s %8s %8s %9s %8s  %s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "sql/req", "sql max", "statuses");
+        long serverErrors = 0;
+        for (ApiWorkload.Endpoint e : endpoints) {
+            Histogram h = latencies.get(e.name()).getIntervalHistogram();
+            double[] before = sqlBefore.get(e.name());
+            double[] after = sqlTotals(e.operation());
+            double calls = after[0] - before[0];
+            Map<Integer, AtomicLong> byStatus = new TreeMap<>(statuses.get(e.name()));
+            for (Map.Entry<Integer, AtomicLong> s : byStatus.entrySet()) {
+                if (s.getKey() >= 500) serverErrors += s.getValue().get();
+            }
+            System.out.printf("%-14s %8d %8.0f %8.1f %8.1f %8.1f %8.1f %9.1f %8.0f  %s%n",
+                    e.name(), h.getTotalCount(), h.getTotalCount() / (double) seconds,
+                    ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(95)), ms(h.getValueAtPercentile(99)),
+                    ms(h.getMaxValue()), calls > 0 ? (after[1] - before[1]) / calls : 0.0, after[2], byStatus);
+        }
+
+        assertEquals(0, serverErrors, "server errors during the run");
+        for (ApiWorkload.Group g : workload.groups()) {
+            assertTrue(workload.getJson("/admin/groups/" + g.id() + "/balances/verify").isEmpty(),
+                    "ledger drifted for group " + g.id());
+        }
+    }
+
+    private static ApiWorkload.Endpoint pick(List<ApiWorkload.Endpoint> endpoints, int roll) {
+        for (ApiWorkload.Endpoint e : endpoints) {
+            roll -= e.weight();
+            if (roll < 0) return e;
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+
+    // count, total and max of app.operation.sql.statements for one controller operation
+    private double[] sqlTotals(String operation) {
+        DistributionSummary summary = meters.find("app.operation.sql.statements").tag("operation", operation).summary();
+        return summary == null ? new double[3] : new double[]{summary.count(), summary.totalAmount(), summary.max()};
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
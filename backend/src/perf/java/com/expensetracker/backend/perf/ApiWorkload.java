@@ -0,0 +1,148 @@
+package com.expensetracker.backend.perf;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * Seeds users, groups and expenses through the REST API and describes the mixed workload run
+ * against them. Everything goes over HTTP, so the numbers include serialization and the servlet
+ * stack, as production requests do.
+ */
+final class ApiWorkload {
+
+    private static final String[] FIRST = {"Alice", "Bob", "Carla", "Dev", "Elena", "Farid", "Grace", "Hiro",
+            "Ines", "Jonas", "Keiko", "Liam", "Maya", "Nikhil", "Olga", "Priya", "Quinn", "Rosa", "Sam", "Tariq"};
+    private static final String[] LAST = {"Smith", "Garcia", "Khan", "Nguyen", "Muller", "Rossi", "Sato", "Silva",
+            "Kumar", "Novak", "Okafor", "Larsen"};
+    private static final int BATCH_SIZE = 500;
+
+    record Group(long id, long[] memberIds) {
+    }
+
+    /** One request type of the mix; {@code operation} is its controller method, as tagged in app.operation metrics. */
+    record Endpoint(String name, String operation, int weight, BiFunction<Random, Group, HttpRequest> request) {
+    }
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final JsonMapper json = JsonMapper.builder().build();
+    private final String base;
+    private final List<Group> groups = new ArrayList<>();
+    private final List<String> searchTerms = new ArrayList<>();
+
+    ApiWorkload(String base) {
+        this.base = base;
+    }
+
+    List<Group> groups() {
+        return groups;
+    }
+
+    /**
+     * Users are shared between groups the way friends are, so membership lookups return several
+     * groups per user. Expenses are split evenly between all members of their group.
+     */
+    void seed(int groupCount, int membersPerGroup, int expensesPerGroup, long seed) throws Exception {
+        Random random = new Random(seed);
+        int userCount = Math.max(membersPerGroup, groupCount * membersPerGroup / 2);
+        long[] users = new long[userCount];
+        for (int i = 0; i < userCount; i++) {
+            String name = FIRST[i % FIRST.length] + " " + LAST[(i / FIRST.length) % LAST.length] + " " + i;
+            JsonNode user = post("/users", Map.of("name", name, "email", "perf-" + seed + "-" + i + "@example.com"));
+            users[i] = user.get("id").asLong();
+        }
+        for (String first : FIRST) searchTerms.add(first.substring(0, 3).toLowerCase());
+        for (String last : LAST) searchTerms.add(last.toLowerCase());
+
+        for (int g = 0; g < groupCount; g++) {
+            List<Long> pool = new ArrayList<>();
+            for (long id : users) pool.add(id);
+            Collections.shuffle(pool, random);
+            List<Long> members = pool.subList(0, membersPerGroup);
+            JsonNode group = post("/groups", Map.of("name", "Perf group " + g, "memberUserIds", members));
+            long groupId = group.get("id").asLong();
+            long[] memberIds = members.stream().mapToLong(Long::longValue).toArray();
+            groups.add(new Group(groupId, memberIds));
+
+            for (int from = 0; from < expensesPerGroup; from += BATCH_SIZE) {
+                List<Map<String, Object>> rows = new ArrayList<>();
+                for (int i = from; i < Math.min(from + BATCH_SIZE, expensesPerGroup); i++) {
+                    rows.add(expense(random, memberIds, "Seed " + i));
+                }
+                post("/groups/" + groupId + "/expenses/batch", rows);
+            }
+        }
+    }
+
+    List<Endpoint> endpoints() {
+        return List.of(
+                new Endpoint("GET expenses", "ExpenseController.listExpenses", 30,
+                        (r, g) -> get("/groups/" + g.id() + "/expenses?limit=50")),
+                new Endpoint("GET balances", "ExpenseController.balances", 25,
+                        (r, g) -> get("/groups/" + g.id() + "/balances")),
+                new Endpoint("POST expense", "ExpenseController.createExpense", 15,
+                        (r, g) -> postRequest("/groups/" + g.id() + "/expenses", expense(r, g.memberIds(), "Lunch"))),
+                new Endpoint("POST settle", "ExpenseController.settle", 5,
+                        (r, g) -> postRequest("/groups/" + g.id() + "/settle", settlement(r, g.memberIds()))),
+                new Endpoint("GET search", "UserControllerSearchExtension.searchUsers", 15,
+                        (r, g) -> get("/users/search?q=" + searchTerms.get(r.nextInt(searchTerms.size())))),
+                new Endpoint("GET groups", "GroupController.listGroups", 10,
+                        (r, g) -> get("/groups?memberId=" + g.memberIds()[r.nextInt(g.memberIds().length)]))
+        );
+    }
+
+    HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    JsonNode getJson(String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(get(path));
+        if (response.statusCode() != 200) throw new IllegalStateException("GET " + path + " returned " + response.statusCode());
+        return json.readTree(response.body());
+    }
+
+    private JsonNode post(String path, Object body) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(postRequest(path, body));
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("POST " + path + " returned " + response.statusCode());
+        }
+        return json.readTree(response.body());
+    }
+
+    private static Map<String, Object> expense(Random random, long[] memberIds, String description) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("paidByUserId", memberIds[random.nextInt(memberIds.length)]);
+        row.put("amount", (100 + random.nextInt(20_000)) / 100.0);
+        row.put("description", description);
+        row.put("splitType", "EQUAL");
+        return row;
+    }
+
+    private static Map<String, Object> settlement(Random random, long[] memberIds) {
+        int from = random.nextInt(memberIds.length);
+        int to = (from + 1 + random.nextInt(memberIds.length - 1)) % memberIds.length;
+        return Map.of("fromUserId", memberIds[from], "toUserId", memberIds[to], "amount", (100 + random.nextInt(5_000)) / 100.0);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(base + path)).GET().build();
+    }
+
+    private HttpRequest postRequest(String path, Object body) {
+        return HttpRequest.newBuilder(URI.create(base + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(body)))
+                .build();
+    }
+}
@@ -0,0 +1,136 @@
+package com.expensetracker.backend.perf;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the app against a database in the shape ddl-auto=update left it before migrations existed:
+ * identity ids, floating-point amounts, no cent columns and no history table. Flyway baselines it
+ * at 0 and migrates it, schema validation has to pass, and the legacy rows have to come through.
+ */
+@Tag("perf")
+@DisabledIfSystemProperty(named = "perf.db", matches = "(?i)h2", disabledReason = "the migrations are Postgres-specific")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LegacySchemaUpgradeTest {
+
+    private static EmbeddedPostgres postgres;
+
+    // As Hibernate generated it for the original entities, with a group of two: an open dinner, a lunch
+    // archived in place and a partial settle-up, written as the original settle endpoint wrote it
+    private static final String[] LEGACY = {
+            "create table users (id bigint generated by default as identity, email varchar(255), name varchar(255), primary key (id))",
+            "create table groups (id bigint generated by default as identity, name varchar(255), primary key (id))",
+            "create table group_members (group_id bigint not null, user_id bigint not null, primary key (group_id, user_id))",
+            "create table expenses (amount float(53), archived boolean, group_id bigint, id bigint generated by default as identity, " +
+                    "paid_by_user_id bigint, description varchar(255), primary key (id))",
+            "create table expense_splits (amount_owed float(53), expense_id bigint not null, id bigint generated by default as identity, " +
+                    "user_id bigint not null, primary key (id))",
+            "alter table if exists group_members add constraint fk_group_members_user foreign key (user_id) references users",
+            "alter table if exists group_members add constraint fk_group_members_group foreign key (group_id) references groups",
+            "alter table if exists expenses add constraint fk_expenses_group foreign key (group_id) references groups",
+            "alter table if exists expenses add constraint fk_expenses_paid_by foreign key (paid_by_user_id) references users",
+            "alter table if exists expense_splits add constraint fk_expense_splits_expense foreign key (expense_id) references expenses",
+            "alter table if exists expense_splits add constraint fk_expense_splits_user foreign key (user_id) references users",
+
+            "insert into users (name, email) values ('Ann', 'ann@example.com'), ('Bob', 'bob@example.com')",
+            "insert into groups (name) values ('Trip')",
+            "insert into group_members (group_id, user_id) values (1, 1), (1, 2)",
+            "insert into expenses (amount, archived, group_id, paid_by_user_id, description) values (90.0, false, 1, 1, 'Dinner')",
+            "insert into expense_splits (amount_owed, expense_id, user_id) values (45.0, 1, 1), (45.0, 1, 2)",
+            "insert into expenses (amount, archived, group_id, paid_by_user_id, description) values (30.5, true, 1, 2, 'Lunch')",
+            "insert into expense_splits (amount_owed, expense_id, user_id) values (15.25, 2, 1), (15.25, 2, 2)",
+            "insert into expenses (amount, archived, group_id, paid_by_user_id, description) values (20.0, false, 1, 2, 'Settlement')",
+            "insert into expense_splits (amount_owed, expense_id, user_id) values (20.0, 3, 1)",
+    };
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws SQLException {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Embedded Postgres did not start", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                }
+            }));
+            try (Connection c = postgres.getPostgresDatabase().getConnection(); Statement s = c.createStatement()) {
+                for (String sql : LEGACY) s.execute(sql);
+            }
+        }
+        String url = postgres.getJdbcUrl("postgres", "postgres");
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    void migratesLegacySchema() throws Exception {
+        assertEquals(9000L, jdbc.queryForObject("select amount_cents from expenses where id = 1", Long.class));
+        assertEquals(2500L, jdbc.queryForObject("select net_cents from group_balances where group_id = 1 and user_id = 1", Long.class));
+        // Archived history moved out of the active tables keeps its amounts
+        assertEquals(3050L, jdbc.queryForObject("select amount_cents from expense_archive where id = 2", Long.class));
+        assertEquals(3050L, jdbc.queryForObject("select sum(amount_owed_cents) from expense_split_archive where expense_id = 2", Long.class));
+        // The settle-up is recognised as a transfer, and spending covers the dinner and the archived lunch only
+        assertEquals(Boolean.TRUE, jdbc.queryForObject("select settlement from expenses where id = 3", Boolean.class));
+        assertEquals(12050L, jdbc.queryForObject("select sum(paid_cents) from daily_spend where group_id = 1", Long.class));
+        assertEquals(12050L, jdbc.queryForObject("select sum(share_cents) from daily_spend where group_id = 1", Long.class));
+
+        // New rows take ids from the pooled sequences, past the ones the identity columns handed out
+        HttpResponse<String> created = post("/groups/1/expenses",
+                "{\"paidByUserId\":2,\"amount\":30,\"description\":\"Taxi\",\"splitType\":\"EQUAL\"}");
+        assertEquals(201, created.statusCode(), created.body());
+        assertTrue(id(created.body()) > 3, created.body());
+        assertEquals(5L, jdbc.queryForObject("select count(distinct id) from expense_splits", Long.class));
+    }
+
+    private HttpResponse<String> post(String path, String json) throws Exception {
+        return http.send(HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static long id(String json) {
+        Matcher m = Pattern.compile("\"id\":(\\d+)").matcher(json);
+        assertTrue(m.find(), "no id in " + json);
+        return Long.parseLong(m.group(1));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,53 @@
+package com.expensetracker.backend.perf;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.ActiveProfilesResolver;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Database behind the perf suite, chosen with -Dperf.db: {@code postgres} (default) starts an
+ * embedded Postgres from the binaries in the local Maven repository, {@code h2} activates the h2
+ * profile instead. Neither needs a network connection once dependencies are cached.
+ */
+final class PerfDatabase {
+
+    private static EmbeddedPostgres postgres;
+
+    private PerfDatabase() {
+    }
+
+    static boolean h2() {
+        return System.getProperty("perf.db", "postgres").equalsIgnoreCase("h2");
+    }
+
+    static synchronized void register(DynamicPropertyRegistry registry) {
+        if (h2()) return;
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Embedded Postgres did not start; try -Dperf.db=h2", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                }
+            }));
+        }
+        String url = postgres.getJdbcUrl("postgres", "postgres");
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    public static class Profiles implements ActiveProfilesResolver {
+        @Override
+        public String[] resolve(Class<?> testClass) {
+            return h2() ? new String[]{"h2"} : new String[0];
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.expensetracker.backend.perf;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+/**
+ * Loads a large history straight into the migrated schema (default 10M split rows, -Dperf.splits)
+ * and prints EXPLAIN ANALYZE for the queries behind listing, balances and user lookups. Fails if
+ * any of them falls back to a sequential scan of a large table; below a million splits the planner
+ * may rightly prefer one, so smaller runs only print the plans. Postgres only.
+ */
+@Tag("perf")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles(resolver = PerfDatabase.Profiles.class)
+class QueryPlanTest {
+
+    private static final int SPLITS_PER_EXPENSE = 4;
+    private static final int EXPENSES_PER_GROUP = 500;
+    private static final int MEMBERS_PER_GROUP = 8;
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (expenses|expense_splits|users|group_members|group_balances)\\b");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PerfDatabase.register(registry);
+    }
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Test
+    void hotQueriesUseIndexes() {
+        assumeFalse(PerfDatabase.h2(), "query plans are checked on Postgres only");
+        long splits = Long.getLong("perf.splits", 10_000_000L);
+        long expenses = splits / SPLITS_PER_EXPENSE;
+        long groups = Math.max(1, expenses / EXPENSES_PER_GROUP);
+        long users = Math.max(MEMBERS_PER_GROUP, groups * MEMBERS_PER_GROUP / 2);
+
+        long start = System.nanoTime();
+        long userBase = seed(users, groups, expenses);
+        System.out.printf("%nloaded %d users, %d groups, %d expenses, %d splits in %d s%n", users, groups, expenses,
+                expenses * SPLITS_PER_EXPENSE, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+
+        long groupId = jdbc.queryForObject("select max(id) from groups", Long.class) - groups / 2;
+        long userId = jdbc.queryForObject("select user_id from group_members where group_id = ? limit 1", Long.class, groupId);
+        String email = jdbc.queryForObject("select email from users where id = ?", String.class, userId);
+
+        Map<String, String> queries = new LinkedHashMap<>();
+        queries.put("expenses page", "select id, group_id, paid_by_user_id, amount_cents, description from expenses " +
+                "where group_id = " + groupId + " and archived = false and id > 0 order by id limit 50");
+        queries.put("active expenses with splits", "select e.id, e.paid_by_user_id, e.amount_cents, s.user_id, s.amount_owed_cents " +
+                "from expenses e left join expense_splits s on s.expense_id = e.id " +
+                "where e.group_id = " + groupId + " and e.archived = false");
+        queries.put("ledger read", "select user_id, net_cents from group_balances where group_id = " + groupId);
+        queries.put("groups of member", "select group_id from group_members where user_id = " + userId);
+        queries.put("user by email", "select id, name, email from users where lower(email) = lower('" + email + "')");
+        queries.put("active participant", "select distinct s.user_id from expense_splits s join expenses e on e.id = s.expense_id " +
+                "where e.archived = false and s.user_id in (" + userId + ", " + (userBase + 1) + ")");
+
+        for (Map.Entry<String, String> q : queries.entrySet()) {
+            String plan = String.join("\n", jdbc.queryForList("explain (analyze, buffers) " + q.getValue(), String.class));
+            System.out.printf("%n== %s%n%s%n", q.getKey(), plan);
+            if (splits >= 1_000_000) assertFalse(SEQ_SCAN.matcher(plan).find(), q.getKey() + " scans a whole table");
+        }
+    }
+
+    // Set-based load with ids past anything already in the tables; returns the id before the first new user
+    private long seed(long users, long groups, long expenses) {
+        long userBase = jdbc.queryForObject("select coalesce(max(id), 0) from users", Long.class);
+        long groupBase = jdbc.queryForObject("select coalesce(max(id), 0) from groups", Long.class);
+        long expenseBase = jdbc.queryForObject("select coalesce(max(id), 0) from expenses", Long.class);
+        long splitBase = jdbc.queryForObject("select coalesce(max(id), 0) from expense_splits", Long.class);
+
+        jdbc.update("insert into users (id, name, email) select ? + i, 'Plan user ' || i, 'plan-' || ? + i || '@example.com' " +
+                "from generate_series(1, ?) i", userBase, userBase, users);
+        jdbc.update("insert into groups (id, name, open_balances, version) select ? + g, 'Plan group ' || g, 0, 0 " +
+                "from generate_series(1, ?) g", groupBase, groups);
+        // Member k of group g is user (g * members / 2 + k) mod users, so neighbouring groups share people
+        String member = "? + 1 + ((g * " + MEMBERS_PER_GROUP / 2 + " + k) % ?)";
+        jdbc.update("insert into group_members (group_id, user_id) select ? + g, " + member + " " +
+                "from generate_series(1, ?) g, generate_series(0, " + (MEMBERS_PER_GROUP - 1) + ") k",
+                groupBase, userBase, users, groups);
+        jdbc.update("insert into group_balances (group_id, user_id, net_cents) select group_id, user_id, 0 from group_members " +
+                "where group_id > ?", groupBase);
+        // Expenses interleave across groups as they would over time; all but the newest fifth are settled
+        jdbc.update("insert into expenses (id, group_id, paid_by_user_id, amount_cents, description, archived) " +
+                "select ? + i, ? + 1 + (i % ?), ? + 1 + (((i % ?) + 1) * " + MEMBERS_PER_GROUP / 2 + " + (i % " + MEMBERS_PER_GROUP + ")) % ?, " +
+                "400 + (i % 5000) * 4, 'Plan expense ' || i, i < ? * 4 / 5 " +
+                "from generate_series(0, ? - 1) i",
+                expenseBase, groupBase, groups, userBase, groups, users, expenses, expenses);
+        jdbc.update("insert into expense_splits (id, expense_id, user_id, amount_owed_cents) " +
+                "select ? + j, ? + j / " + SPLITS_PER_EXPENSE + ", " +
+                "? + 1 + (((j / " + SPLITS_PER_EXPENSE + " % ?) + 1) * " + MEMBERS_PER_GROUP / 2 + " + j % " + SPLITS_PER_EXPENSE + ") % ?, " +
+                "100 + (j / " + SPLITS_PER_EXPENSE + " % 5000) " +
+                "from generate_series(0, ? * " + SPLITS_PER_EXPENSE + " - 1) j",
+                splitBase, expenseBase, userBase, groups, users, expenses);
+        jdbc.queryForList("select setval('expenses_id_seq', (select max(id) from expenses) + 50)");
+        jdbc.queryForList("select setval('expense_splits_id_seq', (select max(id) from expense_splits) + 50)");
+        jdbc.execute("analyze");
+        return userBase;
+    }
+}
@@ -0,0 +1,105 @@
+package com.expensetracker.backend.perf;
+
+import com.expensetracker.backend.service.RecurringExpenseScheduler;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Seeds due recurring templates (default 100k, -Dperf.recurring) over groups of four members and
+ * times one scheduler pass that posts them. Fails unless every template posts exactly one expense,
+ * a second pass posts nothing, and every group's ledger matches its expenses afterwards.
+ */
+@Tag("perf")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "app.recurring.delay=PT24H")
+@ActiveProfiles(resolver = PerfDatabase.Profiles.class)
+class RecurringGenerationTest {
+
+    private static final int TEMPLATES_PER_GROUP = 20;
+    private static final int MEMBERS_PER_GROUP = 4;
+    private static final int BATCH = 1000;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PerfDatabase.register(registry);
+    }
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Autowired
+    RecurringExpenseScheduler scheduler;
+
+    @Test
+    void postsDueTemplatesInChunks() {
+        int templates = Integer.getInteger("perf.recurring", 100_000);
+        int groups = Math.max(1, templates / TEMPLATES_PER_GROUP);
+        Instant period = Instant.now().truncatedTo(ChronoUnit.DAYS);
+        long groupBase = seed(templates, groups, period);
+
+        long start = System.nanoTime();
+        int posted = scheduler.postDue(Instant.now());
+        long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.printf("%nposted %d recurring expenses in %d groups in %d ms (%.0f per second)%n",
+                posted, groups, ms, posted * 1000.0 / Math.max(1, ms));
+
+        assertEquals(templates, posted);
+        assertEquals(0, scheduler.postDue(Instant.now()), "second pass posted again");
+        assertEquals(templates, jdbc.queryForObject("select count(*) from expenses where recurring_period = ?",
+                Long.class, Timestamp.from(period)).intValue());
+        // Ledger rows against paid minus owed over the groups' expenses
+        Long drifted = jdbc.queryForObject("select count(*) from group_balances b where b.group_id > ? and b.net_cents <> " +
+                "coalesce((select sum(e.amount_cents) from expenses e where e.group_id = b.group_id and e.paid_by_user_id = b.user_id), 0) - " +
+                "coalesce((select sum(s.amount_owed_cents) from expense_splits s join expenses e on e.id = s.expense_id " +
+                "where e.group_id = b.group_id and s.user_id = b.user_id), 0)", Long.class, groupBase);
+        assertEquals(0L, drifted, "ledger rows drifted");
+    }
+
+    // Plain JDBC batches so the load runs on H2 as well; returns the id before the first new group
+    private long seed(int templates, int groups, Instant period) {
+        long userBase = jdbc.queryForObject("select coalesce(max(id), 0) from users", Long.class);
+        long groupBase = jdbc.queryForObject("select coalesce(max(id), 0) from groups", Long.class);
+        int users = groups * MEMBERS_PER_GROUP;
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= users; i++) rows.add(new Object[]{userBase + i, "Recurring user " + i, "recurring-" + (userBase + i) + "@example.com"});
+        insert("insert into users (id, name, email) values (?, ?, ?)", rows);
+        for (int g = 1; g <= groups; g++) rows.add(new Object[]{groupBase + g, "Recurring group " + g});
+        insert("insert into groups (id, name, open_balances, version, archive_batches, cleared_batches, pending_events) values (?, ?, 0, 0, 0, 0, 0)", rows);
+        for (int g = 1; g <= groups; g++) {
+            for (int k = 1; k <= MEMBERS_PER_GROUP; k++) rows.add(new Object[]{groupBase + g, userBase + (long) (g - 1) * MEMBERS_PER_GROUP + k});
+        }
+        insert("insert into group_members (group_id, user_id) values (?, ?)", rows);
+        // Template i belongs to group i % groups, so each claim sees groups in id order as the scheduler does
+        Timestamp due = Timestamp.from(period);
+        for (int i = 0; i < templates; i++) {
+            int g = 1 + i % groups;
+            long payer = userBase + (long) (g - 1) * MEMBERS_PER_GROUP + 1 + i % MEMBERS_PER_GROUP;
+            rows.add(new Object[]{groupBase + g, payer, 1000L + i % 997, "Recurring " + i, due});
+        }
+        insert("insert into recurring_expenses (group_id, paid_by_user_id, amount_cents, description, split_type, cron, time_zone, next_run_at) " +
+                "values (?, ?, ?, ?, 'EQUAL', '@daily', 'UTC', ?)", rows);
+        return groupBase;
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH) {
+            jdbc.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH, rows.size())));
+        }
+        rows.clear();
+    }
+}
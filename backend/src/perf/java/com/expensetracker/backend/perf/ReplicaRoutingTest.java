@@ -0,0 +1,147 @@
+package com.expensetracker.backend.perf;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the replicas profile against a primary and a streaming standby. With replay paused on the
+ * standby, a user created by one client is visible to that client at once (its reads are pinned to
+ * the primary) and not to another client, whose reads the replica serves; once replay resumes the
+ * other client sees it too; the same holds for a streamed export. With the standby stopped, reads fall back to the primary.
+ */
+@Tag("perf")
+@DisabledIfSystemProperty(named = "perf.db", matches = "(?i)h2", disabledReason = "needs two Postgres servers")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.datasource.sticky-window=PT30S",
+        "spring.datasource.hikari.connection-timeout=1000"
+})
+@ActiveProfiles("replicas")
+class ReplicaRoutingTest {
+
+    private static final int CATCH_UP_MS = 10_000;
+
+    @DynamicPropertySource
+    static void databases(DynamicPropertyRegistry registry) {
+        ReplicatedPostgres.register(registry);
+    }
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    MeterRegistry meters;
+
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void routesReadsByClientAndFallsBack() throws Exception {
+        String email = "replica-" + System.nanoTime() + "@example.com";
+        replay("pg_wal_replay_pause");
+        HttpResponse<String> user = post("writer", "/users", "{\"name\":\"Replica\",\"email\":\"" + email + "\"}");
+        assertEquals(200, user.statusCode());
+
+        double pinned = reads("primary", "pinned");
+        assertEquals(200, findByEmail("writer", email), "writer reads its own write");
+        assertEquals(pinned + 1, reads("primary", "pinned"));
+
+        double replicated = reads("replica-1", "replica");
+        assertEquals(404, findByEmail("reader", email), "paused replica already has the write");
+        assertEquals(replicated + 1, reads("replica-1", "replica"));
+
+        // The export is written on an async thread, which still reads the writer's own expense from the primary
+        long userId = id(user.body());
+        HttpResponse<String> group = post("writer", "/groups", "{\"name\":\"Replica\",\"memberUserIds\":[" + userId + "]}");
+        long groupId = id(group.body());
+        assertEquals(201, post("writer", "/groups/" + groupId + "/expenses",
+                "{\"paidByUserId\":" + userId + ",\"amount\":12,\"description\":\"Replica\",\"splitType\":\"EQUAL\"}").statusCode());
+        pinned = reads("primary", "pinned");
+        assertEquals(1, export("writer", groupId).lines().count(), "writer's export misses its expense");
+        assertEquals(pinned + 1, reads("primary", "pinned"));
+        assertEquals(0, export("reader", groupId).lines().count(), "paused replica already has the expense");
+
+        replay("pg_wal_replay_resume");
+        long deadline = System.currentTimeMillis() + CATCH_UP_MS;
+        int status;
+        while ((status = findByEmail("reader", email)) == 404 && System.currentTimeMillis() < deadline) Thread.sleep(50);
+        assertEquals(200, status, "replica did not catch up");
+        for (String pool : new String[]{"primary", "replica-1"}) {
+            assertTrue(meters.find("hikaricp.connections").tag("pool", pool).gauge() != null, "no pool metrics for " + pool);
+        }
+
+        ReplicatedPostgres.stopReplica();
+        // Hikari validates a pooled connection only once it has been idle for 500 ms; a read that
+        // gets a connection to the stopped server before that fails instead of falling back
+        Thread.sleep(600);
+        double fallback = reads("primary", "fallback");
+        assertEquals(200, findByEmail("late-reader", email));
+        assertEquals(fallback + 1, reads("primary", "fallback"));
+        // The failed replica is skipped for the retry interval rather than timing out every read
+        long start = System.nanoTime();
+        assertEquals(200, findByEmail("late-reader", email));
+        assertTrue(System.nanoTime() - start < 500_000_000L, "read waited on the failed replica");
+    }
+
+    private void replay(String function) throws Exception {
+        try (Connection c = ReplicatedPostgres.replica().getPostgresDatabase().getConnection();
+             Statement s = c.createStatement()) {
+            s.execute("select " + function + "()");
+        }
+    }
+
+    private HttpResponse<String> post(String client, String path, String json) throws Exception {
+        return send(client, HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)));
+    }
+
+    private String export(String client, long groupId) throws Exception {
+        HttpResponse<String> response = send(client, HttpRequest.newBuilder(uri("/groups/" + groupId + "/expenses"))
+                .header("Accept", "application/x-ndjson").GET());
+        assertEquals(200, response.statusCode());
+        return response.body();
+    }
+
+    private static long id(String json) {
+        Matcher m = Pattern.compile("\"id\":(\\d+)").matcher(json);
+        assertTrue(m.find(), "no id in " + json);
+        return Long.parseLong(m.group(1));
+    }
+
+    private int findByEmail(String client, String email) throws Exception {
+        return send(client, HttpRequest.newBuilder(uri("/users/by-email?email=" + email)).GET()).statusCode();
+    }
+
+    private HttpResponse<String> send(String client, HttpRequest.Builder request) throws Exception {
+        return http.send(request.header("X-Client-Id", client).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private double reads(String pool, String reason) {
+        Counter c = meters.find("app.datasource.reads").tag("pool", pool).tag("reason", reason).counter();
+        return c == null ? 0 : c.count();
+    }
+}
@@ -0,0 +1,111 @@
+package com.expensetracker.backend.perf;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Two embedded Postgres servers, a primary and a hot standby streaming from it, for the replicas
+ * profile. The embedded binaries have no pg_basebackup, so the standby starts from a copy of the
+ * primary's data directory taken while the primary is cleanly stopped.
+ */
+final class ReplicatedPostgres {
+
+    private static EmbeddedPostgres primary;
+    private static EmbeddedPostgres replica;
+    private static Path root;
+
+    private ReplicatedPostgres() {
+    }
+
+    static synchronized void register(DynamicPropertyRegistry registry) {
+        if (primary == null) {
+            try {
+                start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Replicated embedded Postgres did not start", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(ReplicatedPostgres::stop));
+        }
+        String primaryUrl = primary.getJdbcUrl("postgres", "postgres");
+        String replicaUrl = replica.getJdbcUrl("postgres", "postgres");
+        registry.add("spring.datasource.url", () -> primaryUrl);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("app.datasource.replica-urls", () -> replicaUrl);
+    }
+
+    static EmbeddedPostgres replica() {
+        return replica;
+    }
+
+    // Stops the standby, as if the replica host went away
+    static synchronized void stopReplica() throws IOException {
+        if (replica != null) replica.close();
+        replica = null;
+    }
+
+    private static void start() throws IOException {
+        root = Files.createTempDirectory("perf-replicated");
+        Path primaryDir = root.resolve("primary");
+        Path replicaDir = root.resolve("replica");
+        int primaryPort = freePort();
+
+        server(primaryDir, primaryPort).start().close();
+        copy(primaryDir, replicaDir);
+        // Postgres refuses a data directory others can read
+        Files.setPosixFilePermissions(replicaDir, PosixFilePermissions.fromString("rwx------"));
+        Files.writeString(replicaDir.resolve("standby.signal"), "");
+        Files.writeString(replicaDir.resolve("postgresql.auto.conf"),
+                "primary_conninfo = 'host=localhost port=" + primaryPort + " user=postgres'\n",
+                StandardOpenOption.APPEND);
+
+        primary = server(primaryDir, primaryPort).start();
+        replica = server(replicaDir, freePort()).start();
+    }
+
+    private static EmbeddedPostgres.Builder server(Path dir, int port) {
+        return EmbeddedPostgres.builder()
+                .setDataDirectory(dir)
+                .setCleanDataDirectory(false)
+                .setPort(port)
+                .setServerConfig("wal_level", "replica")
+                .setServerConfig("hot_standby", "on");
+    }
+
+    private static void copy(Path from, Path to) throws IOException {
+        try (Stream<Path> paths = Files.walk(from)) {
+            for (Path p : (Iterable<Path>) paths::iterator) {
+                Path target = to.resolve(from.relativize(p).toString());
+                if (Files.isDirectory(p)) Files.createDirectories(target);
+                else if (!p.getFileName().toString().equals("epg-lock")) Files.copy(p, target);
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void stop() {
+        try {
+            if (replica != null) replica.close();
+            if (primary != null) primary.close();
+            try (Stream<Path> paths = Files.walk(root)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.expensetracker.backend.service.settlement;
+
+import com.expensetracker.backend.dto.DebtDto;
+import com.expensetracker.backend.util.LongLongMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinimumTransferSettlementTest {
+
+    private final MinimumTransferSettlement exact = new MinimumTransferSettlement();
+    private final GreedySettlement greedy = new GreedySettlement();
+
+    @Test
+    void beatsGreedyWhenTheGroupSplitsIntoZeroSumSubsets() {
+        // {1, 3, 5} and {2, 4, 6} each settle on their own: 2 + 2 transfers, where greedy needs 5
+        LongLongMap net = net(500, 500, -300, -300, -200, -200);
+        List<DebtDto> plan = exact.plan(net);
+        assertSettles(net, plan);
+        assertEquals(4, plan.size());
+        assertEquals(5, greedy.plan(net).size());
+    }
+
+    @Test
+    void settlesOneDebtorOneCreditorInOneTransfer() {
+        LongLongMap net = net(-1250, 1250);
+        List<DebtDto> plan = exact.plan(net);
+        assertEquals(1, plan.size());
+        assertEquals(1, plan.get(0).fromUserId);
+        assertEquals(2, plan.get(0).toUserId);
+        assertEquals(1250, plan.get(0).amountCents);
+    }
+
+    @Test
+    void needsMembersMinusOneWithoutAZeroSumSubset() {
+        LongLongMap net = net(700, 300, -400, -600);
+        List<DebtDto> plan = exact.plan(net);
+        assertSettles(net, plan);
+        assertEquals(3, plan.size());
+    }
+
+    @Test
+    void settledAndEmptyGroupsNeedNoTransfers() {
+        assertTrue(exact.plan(new LongLongMap()).isEmpty());
+        assertTrue(exact.plan(net(0, 0, 0)).isEmpty());
+    }
+
+    @Test
+    void neverUsesMoreTransfersThanGreedy() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            int n = 2 + random.nextInt(11);
+            long[] cents = new long[n];
+            long total = 0;
+            for (int i = 0; i < n - 1; i++) {
+                // Small amounts so zero-sum subsets actually occur
+                cents[i] = (random.nextInt(9) - 4) * 100L;
+                total += cents[i];
+            }
+            cents[n - 1] = -total;
+            LongLongMap net = net(cents);
+            List<DebtDto> plan = exact.plan(net);
+            assertSettles(net, plan);
+            assertTrue(plan.size() <= greedy.plan(net).size(), "exact worse than greedy on " + Arrays.toString(cents));
+        }
+    }
+
+    @Test
+    void leavesANonZeroTotalAsResidueOnOneSide() {
+        // Positions that do not sum to zero: every transfer is still covered by both sides,
+        // and whatever cannot be matched stays with members of the total's sign
+        for (long[] cents : new long[][]{{500, -300, -100}, {-500, 300, 100}, {400, 400, -300, -300}, {-100, -100}}) {
+            LongLongMap net = net(cents);
+            long total = 0;
+            for (long c : cents) total += c;
+            for (SettlementStrategy s : List.of(exact, greedy, new PairingSettlement())) {
+                LongLongMap left = applied(net, s.plan(net));
+                long residue = 0;
+                for (int i = 0; i < left.size(); i++) {
+                    long before = net.get(left.keyAt(i));
+                    long after = left.valueAt(i);
+                    assertTrue(after == 0 || Long.signum(after) == Long.signum(before), s.name() + " overshot member " + left.keyAt(i));
+                    assertTrue(after == 0 || Long.signum(after) == Long.signum(total), s.name() + " left the wrong side open");
+                    residue += after;
+                }
+                assertEquals(total, residue, s.name());
+            }
+        }
+    }
+
+    @Test
+    void rejectsMoreThanMaxMembersWithOpenBalances() {
+        long[] cents = new long[MinimumTransferSettlement.MAX_MEMBERS + 1];
+        for (int i = 0; i < cents.length - 1; i++) cents[i] = 100;
+        cents[cents.length - 1] = -100L * (cents.length - 1);
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> exact.plan(net(cents)));
+        assertTrue(ex.getMessage().contains(String.valueOf(MinimumTransferSettlement.MAX_MEMBERS)));
+    }
+
+    @Test
+    void settledMembersDoNotCountTowardsMaxMembers() {
+        long[] cents = new long[MinimumTransferSettlement.MAX_MEMBERS + 10];
+        for (int i = 0; i < MinimumTransferSettlement.MAX_MEMBERS; i++) cents[i] = i % 2 == 0 ? 100 : -100;
+        LongLongMap net = net(cents);
+        List<DebtDto> plan = exact.plan(net);
+        assertSettles(net, plan);
+        assertEquals(MinimumTransferSettlement.MAX_MEMBERS / 2, plan.size());
+    }
+
+    // Members get ids 1..n in order
+    static LongLongMap net(long... cents) {
+        LongLongMap net = new LongLongMap(cents.length);
+        for (int i = 0; i < cents.length; i++) net.put(i + 1, cents[i]);
+        return net;
+    }
+
+    static LongLongMap applied(LongLongMap net, List<DebtDto> plan) {
+        LongLongMap left = new LongLongMap(net.size());
+        left.addAll(net);
+        for (DebtDto d : plan) {
+            assertTrue(d.amountCents > 0, "empty transfer");
+            left.add(d.fromUserId, d.amountCents);
+            left.add(d.toUserId, -d.amountCents);
+        }
+        return left;
+    }
+
+    static void assertSettles(LongLongMap net, List<DebtDto> plan) {
+        LongLongMap left = applied(net, plan);
+        for (int i = 0; i < left.size(); i++) {
+            assertEquals(0, left.valueAt(i), "member " + left.keyAt(i) + " left unsettled");
+        }
+    }
+}
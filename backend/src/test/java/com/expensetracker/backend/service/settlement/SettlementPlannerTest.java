@@ -0,0 +1,67 @@
+package com.expensetracker.backend.service.settlement;
+
+import com.expensetracker.backend.dto.DebtDto;
+import com.expensetracker.backend.util.LongLongMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.expensetracker.backend.service.settlement.MinimumTransferSettlementTest.assertSettles;
+import static com.expensetracker.backend.service.settlement.MinimumTransferSettlementTest.net;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SettlementPlannerTest {
+
+    private final SettlementPlanner planner = new SettlementPlanner(List.of(
+            new GreedySettlement(), new MinimumTransferSettlement(), new PairingSettlement()));
+
+    @Test
+    void listsEveryStrategyAndAuto() {
+        assertEquals(List.of("greedy", "exact", "heuristic", "auto"), planner.strategyNames());
+    }
+
+    @Test
+    void autoUsesTheExactSolverUpToItsLimit() {
+        // Zero-sum triples {+5, -3, -2}: exact settles each in two transfers; greedy and the pairing
+        // heuristic (no equal and opposite balances to pair) both need more
+        LongLongMap net = triples(SettlementPlanner.AUTO_EXACT_LIMIT / 3);
+        assertEquals(2 * (SettlementPlanner.AUTO_EXACT_LIMIT / 3), planner.plan("auto", net).size());
+        assertEquals(planner.plan("exact", net).size(), planner.plan(null, net).size());
+    }
+
+    @Test
+    void autoSwitchesToTheHeuristicAboveItsLimit() {
+        LongLongMap net = triples(SettlementPlanner.AUTO_EXACT_LIMIT / 3 + 1);
+        List<DebtDto> auto = planner.plan("AUTO", net);
+        assertSettles(net, auto);
+        assertEquals(planner.plan("heuristic", net).size(), auto.size());
+        assertTrue(auto.size() > planner.plan("exact", net).size());
+    }
+
+    @Test
+    void explicitExactStillRejectsGroupsOverMaxMembers() {
+        LongLongMap net = triples(MinimumTransferSettlement.MAX_MEMBERS / 3 + 1);
+        assertThrows(IllegalArgumentException.class, () -> planner.plan("exact", net));
+        assertSettles(net, planner.plan("auto", net));
+    }
+
+    @Test
+    void rejectsUnknownStrategies() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> planner.plan("cheapest", net(100, -100)));
+        assertEquals("Unknown settlement strategy: cheapest", ex.getMessage());
+    }
+
+    // k groups of three members whose balances cancel, each group with its own scale
+    private static LongLongMap triples(int k) {
+        long[] cents = new long[3 * k];
+        for (int i = 0; i < k; i++) {
+            long unit = 100L * (i + 1) + 7;
+            cents[3 * i] = 5 * unit;
+            cents[3 * i + 1] = -3 * unit;
+            cents[3 * i + 2] = -2 * unit;
+        }
+        return net(cents);
+    }
+}
@@ -0,0 +1,106 @@
+package com.expensetracker.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongLongMapTest {
+
+    @Test
+    void addOnAnAbsentKeyStartsFromZero() {
+        LongLongMap map = new LongLongMap();
+        assertEquals(0, map.get(7));
+        assertFalse(map.containsKey(7));
+        map.add(7, -250);
+        assertTrue(map.containsKey(7));
+        assertEquals(-250, map.get(7));
+        map.add(7, 250);
+        assertTrue(map.containsKey(7), "a zero value is still an entry");
+        assertEquals(0, map.get(7));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void putOverwritesAndKeepsPosition() {
+        LongLongMap map = new LongLongMap();
+        map.put(3, 30);
+        map.put(1, 10);
+        map.put(3, 33);
+        assertEquals(2, map.size());
+        assertEquals(3, map.keyAt(0));
+        assertEquals(33, map.valueAt(0));
+        assertEquals(1, map.keyAt(1));
+    }
+
+    @Test
+    void growsPastItsExpectedSizeInInsertionOrder() {
+        LongLongMap map = new LongLongMap(1);
+        assertTrue(map.isEmpty());
+        for (long k = 0; k < 10_000; k++) map.add(k * 31 + 5, k);
+        assertEquals(10_000, map.size());
+        for (int i = 0; i < map.size(); i++) {
+            assertEquals(i * 31L + 5, map.keyAt(i));
+            assertEquals(i, map.valueAt(i));
+            assertEquals(i, map.get(i * 31L + 5));
+        }
+        assertFalse(map.containsKey(6));
+    }
+
+    @Test
+    void keysThatCollideInTheTableStayDistinct() {
+        // Keys differing only in bits the table index ignores, plus zero and the extremes
+        LongLongMap map = new LongLongMap(4);
+        long[] keys = {0, 1L << 32, 2L << 32, 3L << 32, -1, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 62, -(1L << 32)};
+        for (int i = 0; i < keys.length; i++) map.add(keys[i], i + 1);
+        for (int i = 0; i < keys.length; i++) map.add(keys[i], 100);
+        assertEquals(keys.length, map.size());
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(keys[i], map.keyAt(i));
+            assertEquals(i + 101, map.get(keys[i]));
+        }
+    }
+
+    @Test
+    void matchesAHashMapUnderRandomUpdates() {
+        Random random = new Random(42);
+        LongLongMap map = new LongLongMap();
+        Map<Long, Long> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            // A narrow key range so most updates hit existing entries
+            long key = random.nextInt(2_000) - 1_000;
+            long delta = random.nextInt(20_001) - 10_000;
+            map.add(key, delta);
+            expected.merge(key, delta, Long::sum);
+        }
+        assertEquals(expected.size(), map.size());
+        int i = 0;
+        for (Map.Entry<Long, Long> e : expected.entrySet()) {
+            assertEquals(e.getKey(), map.keyAt(i));
+            assertEquals(e.getValue(), map.valueAt(i));
+            assertEquals(e.getValue(), map.get(e.getKey()));
+            i++;
+        }
+    }
+
+    @Test
+    void addAllMergesByKey() {
+        LongLongMap a = new LongLongMap();
+        a.add(1, 100);
+        a.add(2, -50);
+        LongLongMap b = new LongLongMap();
+        b.add(2, 50);
+        b.add(3, 7);
+        a.addAll(b);
+        assertEquals(3, a.size());
+        assertEquals(100, a.get(1));
+        assertEquals(0, a.get(2));
+        assertEquals(7, a.get(3));
+        assertEquals(3, a.keyAt(2));
+    }
+}
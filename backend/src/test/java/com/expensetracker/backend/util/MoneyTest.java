@@ -0,0 +1,66 @@
+package com.expensetracker.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoneyTest {
+
+    @Test
+    void remainderGoesToTheFirstShares() {
+        assertArrayEquals(new long[]{334, 333, 333}, Money.splitEvenly(1000, 3));
+        assertArrayEquals(new long[]{2, 2, 1, 1}, Money.splitEvenly(6, 4));
+        assertArrayEquals(new long[]{25, 25, 25, 25}, Money.splitEvenly(100, 4));
+    }
+
+    @Test
+    void sharesAlwaysSumToTheTotalAndDifferByAtMostOneCent() {
+        for (long total = -1_000; total <= 1_000; total++) {
+            for (int n = 1; n <= 12; n++) {
+                long[] shares = Money.splitEvenly(total, n);
+                assertEquals(n, shares.length);
+                assertEquals(total, Arrays.stream(shares).sum(), total + " over " + n);
+                long max = Arrays.stream(shares).max().orElseThrow();
+                long min = Arrays.stream(shares).min().orElseThrow();
+                assertTrue(max - min <= 1, total + " over " + n + ": " + Arrays.toString(shares));
+            }
+        }
+    }
+
+    @Test
+    void negativeTotalsAreSplitLikePositiveOnes() {
+        assertArrayEquals(new long[]{-1, -2, -2}, Money.splitEvenly(-5, 3));
+        assertArrayEquals(new long[]{-333, -333, -334}, Money.splitEvenly(-1000, 3));
+    }
+
+    @Test
+    void zeroTotalGivesZeroShares() {
+        assertArrayEquals(new long[]{0, 0, 0}, Money.splitEvenly(0, 3));
+    }
+
+    @Test
+    void largeTotalsDoNotOverflow() {
+        long[] shares = Money.splitEvenly(Long.MAX_VALUE, 7);
+        long sum = 0;
+        for (long s : shares) sum = Math.addExact(sum, s);
+        assertEquals(Long.MAX_VALUE, sum);
+    }
+
+    @Test
+    void rejectsNoShares() {
+        assertThrows(IllegalArgumentException.class, () -> Money.splitEvenly(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> Money.splitEvenly(100, -2));
+    }
+
+    @Test
+    void convertsAtTheApiBoundary() {
+        assertEquals(1999, Money.toCents(19.99));
+        assertEquals(-5, Money.toCents(-0.05));
+        assertEquals(0.1, Money.toAmount(10));
+    }
+}
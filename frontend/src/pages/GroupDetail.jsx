@@ -17,7 +17,9 @@ export default function GroupDetail({ groupId }) {
   const [settling, setSettling] = useState(false);
   const [showOld, setShowOld] = useState(false);
   const [clearing, setClearing] = useState(false);
-  const initialMaxIdRef = useRef(null);
+  const etagRef = useRef(null);
+  const liveRef = useRef(false); // event stream connected
+  const pendingReloadRef = useRef(null);
   const [archivedExpenses, setArchivedExpenses] = useState([]); // old from backend
 
   // Add expense form state
@@ -27,74 +29,116 @@ export default function GroupDetail({ groupId }) {
   const [savingExpense, setSavingExpense] = useState(false);
   const [expenseError, setExpenseError] = useState('');
 
-  useEffect(() => {
-    (async () => {
-      setLoading(true);
-      try {
-        const [gRes, eRes, bRes, uRes] = await Promise.all([
-          fetch(`${API_BASE}/groups/${groupId}`),
-          fetch(`${API_BASE}/groups/${groupId}/expenses`),
-          fetch(`${API_BASE}/groups/${groupId}/balances`).catch(() => null),
-          fetch(`${API_BASE}/users`)
-        ]);
-        const g = await gRes.json();
-        setGroup(g);
-        setNewName(g.name || '');
-        // Expenses: guard against non-JSON or non-array
-        let eJson = [];
-        try { eJson = await eRes.json(); } catch { eJson = []; }
-        // Normalize to an array of expense objects
-        const norm = Array.isArray(eJson) ? eJson : [];
-        setExpenses(norm);
-        // On first load, remember the highest existing id to keep them in Old
-        if (initialMaxIdRef.current == null) {
-          const maxId = norm.reduce((m, x) => (x.id != null && x.id > m ? x.id : m), 0);
-          initialMaxIdRef.current = maxId || 0;
-        }
-        // Balances optional
-        if (bRes) {
-          try {
-            const bJson = await bRes.json();
-            setBalances(Array.isArray(bJson) ? bJson : []);
-          } catch {
-            setBalances([]);
-          }
-        }
-        setUsers(await uRes.json());
-      } catch (e) {
-        setError('Failed to load group');
-      } finally {
-        setLoading(false);
-      }
-    })();
-  }, [groupId]);
+  // Group, members, active expenses and debts in one request; 304 when nothing changed since the last load
+  const loadSummary = async () => {
+    const headers = etagRef.current ? { 'If-None-Match': etagRef.current } : {};
+    const res = await fetch(`${API_BASE}/groups/${groupId}/summary`, { headers });
+    if (res.status === 304) return;
+    if (!res.ok) throw new Error(`Request failed (${res.status})`);
+    const summary = await res.json();
+    let active = summary.expenses || [];
+    if (summary.nextAfter != null) {
+      const rest = await fetch(`${API_BASE}/groups/${groupId}/expenses?after=${summary.nextAfter}`);
+      const restJson = await rest.json().catch(() => []);
+      if (Array.isArray(restJson)) active = active.concat(restJson);
+    }
+    etagRef.current = res.headers.get('ETag');
+    setGroup(summary.group);
+    setUsers(summary.members || []);
+    setExpenses(active);
+    setBalances(Array.isArray(summary.debts) ? summary.debts : []);
+    return summary;
+  };
 
-  const reloadExpenses = async () => {
+  const reloadArchived = async () => {
     try {
-      const eRes = await fetch(`${API_BASE}/groups/${groupId}/expenses`);
-      const eJson = await eRes.json();
-      setExpenses(Array.isArray(eJson) ? eJson : []);
       const aRes = await fetch(`${API_BASE}/groups/${groupId}/expenses/archived`);
       const aJson = await aRes.json();
       setArchivedExpenses(Array.isArray(aJson) ? aJson : []);
     } catch {
-      setExpenses([]);
       setArchivedExpenses([]);
-      setError('Failed to reload expenses');
     }
   };
 
-  const reloadBalances = async () => {
+  // Writes based on what is on screen carry its version; 409/412 means someone else changed the group first
+  const ifMatch = () => (etagRef.current ? { 'If-Match': etagRef.current } : {});
+
+  const reloadAll = async () => {
     try {
-      const bRes = await fetch(`${API_BASE}/groups/${groupId}/balances`);
-      const bJson = await bRes.json();
-      setBalances(Array.isArray(bJson) ? bJson : []);
+      await loadSummary();
     } catch {
-      setBalances([]);
+      setError('Failed to reload group');
+    }
+    await reloadArchived();
+  };
+
+  // Coalesces a burst of events into one summary load (a 304 if nothing changed) and, if needed, archived
+  const scheduleReload = (withArchived) => {
+    if (pendingReloadRef.current) {
+      pendingReloadRef.current.archived ||= withArchived;
+      return;
     }
+    pendingReloadRef.current = { archived: withArchived };
+    setTimeout(async () => {
+      const { archived } = pendingReloadRef.current;
+      pendingReloadRef.current = null;
+      try {
+        await loadSummary();
+      } catch {
+        setError('Failed to reload group');
+      }
+      if (archived) await reloadArchived();
+    }, 100);
   };
 
-  useEffect(() => { reloadExpenses(); }, [groupId]);
+  // While the event stream is up, a write's own event triggers the reload
+  const refreshAfterWrite = async () => {
+    if (!liveRef.current) await reloadAll();
+  };
+
+  // Changes from any member (this tab included) arrive as server-sent events; EventSource reconnects by itself
+  useEffect(() => {
+    const source = new EventSource(`${API_BASE}/groups/${groupId}/events`);
+    source.onopen = () => {
+      // Catch up on anything missed while disconnected
+      if (etagRef.current) scheduleReload(true);
+      liveRef.current = true;
+    };
+    source.onerror = () => {
+      liveRef.current = false;
+    };
+    for (const type of ['ExpenseCreated', 'ExpenseDeleted', 'Settled', 'GroupUpdated']) {
+      source.addEventListener(type, () => scheduleReload(false));
+    }
+    for (const type of ['Archived', 'HistoryCleared']) {
+      source.addEventListener(type, () => scheduleReload(true));
+    }
+    source.addEventListener('GroupDeleted', () => {
+      source.close();
+      liveRef.current = false;
+      setError('This group has been deleted.');
+    });
+    return () => {
+      source.close();
+      liveRef.current = false;
+    };
+  }, [groupId]);
+
+  useEffect(() => {
+    etagRef.current = null;
+    (async () => {
+      setLoading(true);
+      try {
+        const summary = await loadSummary();
+        if (summary) setNewName(summary.group?.name || '');
+      } catch (e) {
+        setError('Failed to load group');
+      } finally {
+        setLoading(false);
+      }
+    })();
+    reloadArchived();
+  }, [groupId]);
 
   const settle = async (fromUserId, toUserId, amount) => {
     if (!confirm('Mark this debt as settled?')) return;
@@ -102,12 +146,16 @@ export default function GroupDetail({ groupId }) {
     try {
       const res = await fetch(`${API_BASE}/groups/${groupId}/settle`, {
         method: 'POST',
-        headers: { 'Content-Type': 'application/json' },
+        headers: { 'Content-Type': 'application/json', ...ifMatch() },
         body: JSON.stringify({ fromUserId, toUserId, amount })
       });
+      if (res.status === 409 || res.status === 412) {
+        await reloadAll();
+        alert('This group changed in the meantime. Balances have been refreshed.');
+        return;
+      }
       if (!res.ok && res.status !== 204) throw new Error('Failed to settle');
-      await reloadBalances();
-      await reloadExpenses();
+      await refreshAfterWrite();
     } catch (e) {
       alert('Could not settle debt.');
     } finally {
@@ -119,10 +167,14 @@ export default function GroupDetail({ groupId }) {
     if (!confirm('Clear all old transactions? This removes settlement and covered expenses.')) return;
     setClearing(true);
     try {
-      const res = await fetch(`${API_BASE}/groups/${groupId}/clear-old`, { method: 'POST' });
+      const res = await fetch(`${API_BASE}/groups/${groupId}/clear-old`, { method: 'POST', headers: ifMatch() });
+      if (res.status === 409 || res.status === 412) {
+        await reloadAll();
+        alert('This group changed in the meantime. Please review and try again.');
+        return;
+      }
       if (!res.ok && res.status !== 204) throw new Error('Failed to clear');
-      await reloadExpenses();
-      await reloadBalances();
+      await refreshAfterWrite();
     } catch (e) {
       alert('Could not clear old transactions');
     } finally {
@@ -133,10 +185,14 @@ export default function GroupDetail({ groupId }) {
   const deleteExpense = async (id) => {
     if (!confirm('Delete this transaction?')) return;
     try {
-      const res = await fetch(`${API_BASE}/groups/${groupId}/expenses/${id}`, { method: 'DELETE' });
+      const res = await fetch(`${API_BASE}/groups/${groupId}/expenses/${id}`, { method: 'DELETE', headers: ifMatch() });
+      if (res.status === 409 || res.status === 412) {
+        await reloadAll();
+        alert('This group changed in the meantime. Please review and try again.');
+        return;
+      }
       if (!res.ok && res.status !== 204) throw new Error('Failed to delete');
-      await reloadExpenses();
-      await reloadBalances();
+      await refreshAfterWrite();
     } catch (e) {
       alert('Could not delete transaction');
     }
@@ -219,6 +275,7 @@ export default function GroupDetail({ groupId }) {
       });
       if (!res.ok) throw new Error('Failed to update name');
       const updated = await res.json();
+      etagRef.current = res.headers.get('ETag');
       setGroup(updated);
       setEditingName(false);
     } catch (e) {
@@ -260,8 +317,7 @@ export default function GroupDetail({ groupId }) {
         const text = await res.text().catch(() => '');
         throw new Error(text || `Failed (${res.status})`);
       }
-      await reloadExpenses();
-      await reloadBalances();
+      await refreshAfterWrite();
       setDesc('');
       setAmount('');
       setPayerId('');
@@ -1,4 +1,4 @@
-import React, { useEffect, useMemo, useState } from 'react';
+import React, { useEffect, useState } from 'react';
 
 const API_BASE = import.meta?.env?.VITE_API_URL || 'http://localhost:8080';
 
@@ -7,23 +7,20 @@ export default function GroupsList() {
   const currentUserId = Number(localStorage.getItem('currentUserId')) || null;
 
   useEffect(() => {
+    if (!currentUserId) return;
     (async () => {
-      const res = await fetch(`${API_BASE}/groups`);
+      const res = await fetch(`${API_BASE}/users/${currentUserId}/groups`);
+      if (!res.ok) return;
       const data = await res.json();
       setGroups(data);
     })();
-  }, []);
-
-  const myGroups = useMemo(() => {
-    if (!currentUserId) return [];
-    return groups.filter(g => Array.isArray(g.memberUserIds) && g.memberUserIds.includes(currentUserId));
-  }, [groups, currentUserId]);
+  }, [currentUserId]);
 
   return (
     <section className="panel card">
       <h2>Your Groups</h2>
       <div className="grid">
-        {myGroups.map(g => (
+        {groups.map(g => (
           <div key={g.id} className="card panel">
             <div className="section-title">
               <strong>{g.name}</strong>
@@ -1,31 +1,29 @@
-import React, { useEffect, useState } from 'react';
+import React, { useState } from 'react';
 
 const API_BASE = import.meta?.env?.VITE_API_URL || 'http://localhost:8080';
 
 export default function Login() {
   const [email, setEmail] = useState('');
-  const [users, setUsers] = useState([]);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState('');
 
-  useEffect(() => {
-    (async () => {
-      try {
-        const res = await fetch(`${API_BASE}/users`);
-        const data = await res.json();
-        setUsers(data);
-      } catch (e) {
-        setError('Failed to load users. Is backend running?');
-      }
-    })();
-  }, []);
-
-  const login = () => {
+  const login = async () => {
     setError('');
-    const match = users.find(u => (u.email || '').toLowerCase() === email.toLowerCase());
-    if (!match) {
-      setError('No account found for this email. Please sign up.');
+    setLoading(true);
+    let match;
+    try {
+      const res = await fetch(`${API_BASE}/users/by-email?email=${encodeURIComponent(email.trim())}`);
+      if (res.status === 404) {
+        setError('No account found for this email. Please sign up.');
+        return;
+      }
+      if (!res.ok) throw new Error(`Request failed (${res.status})`);
+      match = await res.json();
+    } catch (e) {
+      setError('Failed to reach backend. Is it running?');
       return;
+    } finally {
+      setLoading(false);
     }
     localStorage.setItem('currentUserId', String(match.id));
     localStorage.setItem('currentUserEmail', match.email || '');